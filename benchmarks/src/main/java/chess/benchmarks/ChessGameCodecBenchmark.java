@@ -0,0 +1,92 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.MoveList;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storing and loading games with {@link ChessGameCodec}, against the Gson
+ * encoding the server stored them with before, on a fixed set of mid-game
+ * positions reached by random play. Scores are per game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameCodecBenchmark {
+    private static final int GAMES = 256;
+    private static final int PLIES = 40;
+
+    private final Gson gson = new Gson();
+    private ChessGame[] games;
+    private String[] json;
+    private byte[][] binary;
+
+    @Setup
+    public void setUp() {
+        games = midGames();
+        json = new String[GAMES];
+        binary = new byte[GAMES][];
+        for (int i = 0; i < GAMES; i++) {
+            json[i] = gson.toJson(games[i]);
+            binary[i] = ChessGameCodec.encode(games[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void gsonEncode(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(gson.toJson(game));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void codecEncode(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(ChessGameCodec.encode(game));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void gsonDecode(Blackhole blackhole) {
+        for (String text : json) {
+            blackhole.consume(gson.fromJson(text, ChessGame.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void codecDecode(Blackhole blackhole) {
+        for (byte[] bytes : binary) {
+            blackhole.consume(ChessGameCodec.decode(bytes));
+        }
+    }
+
+    private static ChessGame[] midGames() {
+        Random random = new Random(1);
+        MoveList moves = new MoveList();
+        ChessGame[] games = new ChessGame[GAMES];
+        for (int i = 0; i < GAMES; i++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < PLIES; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            games[i] = game;
+        }
+        return games;
+    }
+}
@@ -0,0 +1,49 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft spread over a fork/join pool of each size; comparing the scores
+ * across thread counts shows how close to linear the split scales
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ParallelPerftBenchmark {
+
+    @Param({"START", "KIWIPETE"})
+    public Perft.Position position;
+
+    @Param({"5"})
+    public int depth;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ChessGame game;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.count(game, depth, pool);
+    }
+}
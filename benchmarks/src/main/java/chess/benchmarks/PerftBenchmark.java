@@ -0,0 +1,38 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft to a fixed depth; divide the node count by the score for nodes per
+ * millisecond
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME"})
+    public Perft.Position position;
+
+    @Param({"3"})
+    public int depth;
+
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.count(game, depth);
+    }
+}
@@ -0,0 +1,74 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs perft on the standard positions and checks each count against the
+ * published one, printing the time taken and nodes per second.
+ * <p>
+ * Usage: {@code PerftDriver [depth] [position ...]}, or
+ * {@code PerftDriver depth --fen "<fen>"} for any other position. Depth
+ * defaults to 4 and is capped at the deepest published count. Either form
+ * may add {@code --threads n} to count on a fork/join pool of that many
+ * threads instead of the calling thread alone. Exits with status 1 if any
+ * count is wrong.
+ */
+public class PerftDriver {
+    private static ForkJoinPool pool;
+
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        int threadsFlag = arguments.indexOf("--threads");
+        if (threadsFlag >= 0) {
+            pool = new ForkJoinPool(Integer.parseInt(arguments.get(threadsFlag + 1)));
+            arguments.subList(threadsFlag, threadsFlag + 2).clear();
+        }
+
+        int depth = arguments.isEmpty() ? 4 : Integer.parseInt(arguments.get(0));
+        boolean allMatch = true;
+        if (arguments.size() > 2 && arguments.get(1).equals("--fen")) {
+            run(arguments.get(2), ChessGame.fromFen(arguments.get(2)), depth, -1);
+        } else {
+            List<Perft.Position> positions = new ArrayList<>(Arrays.asList(Perft.Position.values()));
+            if (arguments.size() > 1) {
+                positions.clear();
+                for (String name : arguments.subList(1, arguments.size())) {
+                    positions.add(Perft.Position.valueOf(name.toUpperCase()));
+                }
+            }
+            for (Perft.Position position : positions) {
+                int positionDepth = Math.min(depth, position.maxDepth());
+                allMatch &= run(position.name(), position.game(), positionDepth, position.expected(positionDepth));
+            }
+        }
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (!allMatch) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param expected the published count, or -1 if there is none
+     * @return True if the count matched or there was nothing to compare with
+     */
+    private static boolean run(String name, ChessGame game, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = pool == null ? Perft.count(game, depth) : Perft.count(game, depth, pool);
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        boolean matches = expected < 0 || nodes == expected;
+        String verdict = expected < 0 ? "" : matches ? "  ok" : "  MISMATCH, expected " + expected;
+        System.out.printf("%-10s depth %d: %,15d nodes  %,9d ms  %,12d nps%s%n", name, depth, nodes,
+                nanos / 1_000_000, nodes * 1_000_000_000L / nanos, verdict);
+        return matches;
+    }
+}
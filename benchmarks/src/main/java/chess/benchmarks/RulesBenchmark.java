@@ -0,0 +1,132 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Perft;
+import chess.engine.Evaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rules engine's public entry points, timed on the standard perft
+ * positions. Each benchmark covers every piece, or every legal move, of the
+ * side to move, so scores are per position.
+ * <p>
+ * {@code validMoves} answers repeat queries from the game's move cache; the
+ * {@code AfterMove} variant plays and takes back a move first so the cache is
+ * refilled, and {@link #makeUnmakePacked} gives the cost to subtract.
+ * {@link #evaluate} reads the evaluation totals the board keeps as it changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME"})
+    public Perft.Position position;
+
+    private ChessGame game;
+    private ChessPosition[] squares;
+    private ChessPiece[] pieces;
+    private ChessMove[] legalMoves;
+    private final MoveList packed = new MoveList();
+    private final MoveList scratch = new MoveList();
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+        ChessBoard board = game.getBoard();
+        List<ChessPosition> own = new ArrayList<>();
+        for (int square = 0; square < ChessBoard.NUM_SQUARES; square++) {
+            int pieceIndex = board.pieceIndexAt(square);
+            if (pieceIndex != ChessBoard.EMPTY
+                    && ChessBoard.pieceFor(pieceIndex).getTeamColor() == game.getTeamTurn()) {
+                own.add(ChessBoard.positionOf(square));
+            }
+        }
+        squares = own.toArray(new ChessPosition[0]);
+        pieces = new ChessPiece[squares.length];
+        for (int i = 0; i < squares.length; i++) {
+            pieces[i] = board.getPiece(squares[i]);
+        }
+        game.legalMoves(game.getTeamTurn(), packed);
+        legalMoves = new ChessMove[packed.size()];
+        for (int i = 0; i < packed.size(); i++) {
+            legalMoves[i] = PackedMove.toChessMove(packed.get(i));
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < squares.length; i++) {
+            blackhole.consume(pieces[i].pieceMoves(game.getBoard(), squares[i]));
+        }
+    }
+
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition square : squares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public void validMovesAfterMove(Blackhole blackhole) {
+        game.makeMove(packed.get(0));
+        game.unmakeMove();
+        for (ChessPosition square : squares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public void legalMovesPacked(Blackhole blackhole) {
+        scratch.clear();
+        game.legalMoves(game.getTeamTurn(), scratch);
+        blackhole.consume(scratch.size());
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public void makeMoveValidated() throws InvalidMoveException {
+        for (ChessMove move : legalMoves) {
+            game.makeMove(move);
+            game.unmakeMove();
+        }
+    }
+
+    @Benchmark
+    public void makeUnmakePacked() {
+        for (int i = 0; i < packed.size(); i++) {
+            game.makeMove(packed.get(i));
+            game.unmakeMove();
+        }
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return Evaluator.evaluate(game);
+    }
+}
@@ -0,0 +1,48 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth searches from an empty transposition table; the time to depth
+ * and the node count together give the search's speed and how well it prunes.
+ * Comparing thread counts shows what each added helper thread buys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME"})
+    public Perft.Position position;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private ChessGame game;
+    private Engine engine;
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+        engine = new Engine();
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        engine.clear();
+        return engine.search(game, SearchLimits.toDepth(depth), threads);
+    }
+}
@@ -12,12 +12,18 @@ import exception.ResponseException;
 import websocket.messages.ServerMessage;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.notation.San;
 
 public class ChessClient {
     private enum State {
         PRELOGIN, POSTLOGIN
     }
 
+    private static final long HINT_MILLIS = 1000;
+
     private final ServerFacade facade;
     private final Scanner scanner = new Scanner(System.in);
     private State state = State.PRELOGIN;
@@ -28,6 +34,7 @@ public class ChessClient {
     private String currentColor;
     private boolean inGame = false;
     private boolean gameOver = false;
+    private Engine engine;
 
     public ChessClient(ServerFacade facade) {
         this.facade = facade;
@@ -199,11 +206,12 @@ public class ChessClient {
                     String msg = serverMessage.getMessage();
                     System.out.println(msg);
 
-                    // Mark game over for resign/checkmate/stalemate notifications
+                    // Mark game over for resign/checkmate/stalemate/draw notifications
                     String lowerMsg = msg.toLowerCase();
                     if (lowerMsg.contains("resigned")
                             || lowerMsg.contains("checkmate")
-                            || lowerMsg.contains("stalemate")) {
+                            || lowerMsg.contains("stalemate")
+                            || lowerMsg.contains("is a draw")) {
                         gameOver = true;
                         System.out.println("Game is over. No more moves can be made.");
                     }
@@ -303,7 +311,7 @@ public class ChessClient {
     }
 
     private void gameLoop() {
-        System.out.println("Entering game. Commands: move, redraw, highlight, leave, resign, help.");
+        System.out.println("Entering game. Commands: move, redraw, highlight, hint, leave, resign, help.");
         while (inGame) {
             System.out.print("[GAME] Enter command: ");
             String cmd = scanner.nextLine().trim().toLowerCase();
@@ -311,6 +319,7 @@ public class ChessClient {
                 case "move" -> handleMove();
                 case "redraw" -> handleRedraw();
                 case "highlight" -> handleLegalMoves();
+                case "hint" -> handleHint();
                 case "leave" -> handleLeave();
                 case "resign" -> handleResign();
                 case "help" -> printGameHelp();
@@ -324,6 +333,7 @@ public class ChessClient {
         System.out.println("  move      - Make a move (format: e2 e4)");
         System.out.println("  redraw    - Redraw the chess board");
         System.out.println("  highlight - Highlight legal moves for a piece");
+        System.out.println("  hint      - Suggest a move for the side to play");
         System.out.println("  leave     - Leave the game and return to main menu");
         System.out.println("  resign    - Forfeit the game (you stay in the game as observer)");
         System.out.println("  help      - Display this help message");
@@ -429,7 +439,7 @@ private void handleMove() {
             }
         }
 
-        ChessMove move = new ChessMove(from, to, promotionType);
+        ChessMove move = ChessMove.of(from, to, promotionType);
         System.out.println("DEBUG: Sending move via WebSocket...");
         ws.makeMove(currentAuth.authToken(), currentGame.gameID(), move);
         System.out.println("DEBUG: Move sent successfully!");
@@ -459,7 +469,7 @@ private void handleMove() {
         }
         int file = (fileChar - 'a') + 1;
         int rank = rankChar - '0';
-        return new ChessPosition(rank, file);
+        return ChessPosition.of(rank, file);
     }
 
     private void handleLeave() {
@@ -567,11 +577,52 @@ private void handleMove() {
             targets.add(move.getEndPosition());
         }
 
+        // mark the inspected piece's king if it is under attack
+        var team = piece.getTeamColor();
+        ChessPosition king = game.getBoard().getKingPosition(team);
+        ChessPosition checkedKing = king != null && game.isSquareAttacked(king, team.opponent()) ? king : null;
+
         String perspective = getCurrentColor();
         if (perspective == null) {
-            BoardMaker.drawBoard(game.getBoard(), "WHITE", targets);
+            BoardMaker.drawBoard(game.getBoard(), "WHITE", targets, checkedKing);
+        } else {
+            BoardMaker.drawBoard(game.getBoard(), perspective, targets, checkedKing);
+        }
+    }
+
+    private void handleHint() {
+        if (currentGame == null) {
+            System.out.println("Not in a game.");
+            return;
+        }
+
+        var game = currentGame.game();
+        if (game == null) {
+            System.out.println("No game state loaded yet.");
+            return;
+        }
+        if (gameOver || game.isGameOver()) {
+            System.out.println("Game is over. No more moves can be made.");
+            return;
+        }
+
+        if (engine == null) {
+            engine = new Engine();
+        }
+        SearchResult result = engine.search(game, SearchLimits.forTime(HINT_MILLIS),
+                Runtime.getRuntime().availableProcessors());
+        if (result.bestMove() == null) {
+            System.out.println("There are no legal moves.");
+            return;
+        }
+
+        String evaluation;
+        if (result.isMate()) {
+            evaluation = result.movesToMate() > 0 ? "mate in " + result.movesToMate() : "being mated";
         } else {
-            BoardMaker.drawBoard(game.getBoard(), perspective, targets);
+            evaluation = String.format("%+.2f pawns", result.score() / 100.0);
         }
+        System.out.println("Hint for " + game.getTeamTurn() + ": " + San.toSan(game, result.move())
+                + " (" + evaluation + ", depth " + result.depth() + ")");
     }
-}
\ No newline at end of file
+}
@@ -55,39 +55,46 @@ public class BoardMaker {
     // Draw arbitrary board with highlighted squares
     public static void drawBoard(ChessBoard board, String perspectiveColor,
                                  Set<ChessPosition> highlights) {
+        drawBoard(board, perspectiveColor, highlights, null);
+    }
+
+    // Draw arbitrary board with highlighted squares and a king in check marked red
+    public static void drawBoard(ChessBoard board, String perspectiveColor,
+                                 Set<ChessPosition> highlights, ChessPosition checkedKing) {
         var out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
         out.print(ERASE_SCREEN);
         boolean whitePerspective = (perspectiveColor == null) ||
                 !"BLACK".equalsIgnoreCase(perspectiveColor);
-        drawBoard(out, board, whitePerspective, highlights);
+        drawBoard(out, board, whitePerspective, highlights, checkedKing);
         resetColors(out);
     }
 
     private static void drawInitialBoard(PrintStream out, boolean whitePerspective) {
         // Use generic path with no highlights, null board means initial layout
-        drawBoard(out, (ChessBoard) null, whitePerspective, null);
+        drawBoard(out, (ChessBoard) null, whitePerspective, null, null);
     }
 
     // Wrapper: existing calls use this (no highlights)
     private static void drawBoard(PrintStream out, ChessBoard board, boolean whitePerspective) {
-        drawBoard(out, board, whitePerspective, null);
+        drawBoard(out, board, whitePerspective, null, null);
     }
 
     // Core drawBoard with optional highlights; always prints headers top/bottom
     private static void drawBoard(PrintStream out, ChessBoard board,
                                   boolean whitePerspective,
-                                  Set<ChessPosition> highlights) {
+                                  Set<ChessPosition> highlights,
+                                  ChessPosition checkedKing) {
 
         // top file letters
         drawFileHeaders(out, whitePerspective);
 
         if (whitePerspective) {
             for (int rank = 8; rank >= 1; rank--) {
-                drawRank(out, board, rank, 1, 8, +1, highlights);
+                drawRank(out, board, rank, 1, 8, +1, highlights, checkedKing);
             }
         } else {
             for (int rank = 1; rank <= 8; rank++) {
-                drawRank(out, board, rank, 8, 1, -1, highlights);
+                drawRank(out, board, rank, 8, 1, -1, highlights, checkedKing);
             }
         }
 
@@ -101,7 +108,7 @@ public class BoardMaker {
 
     private static void drawRank(PrintStream out, ChessBoard board,
                                  int rank, int startFile, int endFile, int step,
-                                 Set<ChessPosition> highlights) {
+                                 Set<ChessPosition> highlights, ChessPosition checkedKing) {
         resetColors(out);
         out.printf("%d ", rank);
 
@@ -112,12 +119,17 @@ public class BoardMaker {
                     : pieceAt(board, rank, file);
 
             boolean isHighlighted = false;
-            if (highlights != null && board != null) {
-                ChessPosition pos = new ChessPosition(rank, file);
-                isHighlighted = highlights.contains(pos);
+            boolean isChecked = false;
+            if (board != null) {
+                ChessPosition pos = ChessPosition.of(rank, file);
+                isHighlighted = highlights != null && highlights.contains(pos);
+                isChecked = pos.equals(checkedKing);
             }
 
-            if (isHighlighted) {
+            if (isChecked) {
+                out.print(SET_BG_COLOR_RED);
+                out.print(SET_TEXT_COLOR_BLACK);
+            } else if (isHighlighted) {
                 out.print(SET_BG_COLOR_GREEN);
                 out.print(SET_TEXT_COLOR_BLACK);
             } else if (dark) {
@@ -208,7 +220,7 @@ public class BoardMaker {
         if (board == null) {
             return initialPieceAt(rank, file);
         }
-        ChessPosition pos = new ChessPosition(rank, file);
+        ChessPosition pos = ChessPosition.of(rank, file);
         ChessPiece piece = board.getPiece(pos);
         if (piece == null) {
             return 0;
@@ -1,18 +1,22 @@
 package dataaccess;
 
-
+import chess.ChessGameCodec;
 import model.*;
 import java.util.*;
 
 public class MemoryDataAccess implements DataAccess {
     private final Map<String, UserData> users = new HashMap<>();
+    // games are kept encoded, like the database does, so every getGame hands out
+    // a game of its own rather than one shared with other callers
     private final Map<Integer, GameData> games = new HashMap<>();
+    private final Map<Integer, byte[]> gameStates = new HashMap<>();
     private final Map<String, AuthData> auths = new HashMap<>();
 
     @Override
     public void clear() {
         users.clear();
         games.clear();
+        gameStates.clear();
         auths.clear();
     }
 
@@ -43,19 +47,23 @@ public class MemoryDataAccess implements DataAccess {
         if (games.containsKey(game.gameID())) {
             throw new DataAccessException("Error: already taken");
         }
-        games.put(game.gameID(), game);
+        store(game);
     }
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
         GameData game = games.get(gameID);
         if (game == null) throw new DataAccessException("Error: bad request");
-        return game;
+        return load(game);
     }
 
     @Override
     public List<GameData> listGames() {
-        return new ArrayList<>(games.values());
+        List<GameData> list = new ArrayList<>();
+        for (GameData game : games.values()) {
+            list.add(load(game));
+        }
+        return list;
     }
 
     @Override
@@ -63,7 +71,23 @@ public class MemoryDataAccess implements DataAccess {
         if (!games.containsKey(game.gameID())) {
             throw new DataAccessException("Error: bad request");
         }
-        games.put(game.gameID(), game);
+        store(game);
+    }
+
+    private void store(GameData game) {
+        games.put(game.gameID(), new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(),
+                game.gameName(), null));
+        if (game.game() == null) {
+            gameStates.remove(game.gameID());
+        } else {
+            gameStates.put(game.gameID(), ChessGameCodec.encode(game.game()));
+        }
+    }
+
+    private GameData load(GameData game) {
+        byte[] state = gameStates.get(game.gameID());
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                state == null ? null : ChessGameCodec.decode(state));
     }
 
     @Override
@@ -4,8 +4,12 @@ import model.UserData;
 import model.AuthData;
 import model.GameData;
 import chess.ChessGame;
+import chess.ChessGameCodec;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -181,7 +185,7 @@ public class MySqlDataAccess implements DataAccess {
              var stmt = conn.prepareStatement(insertSql)) {
             stmt.setInt(1, game.gameID());
             stmt.setString(2, game.gameName());
-            stmt.setString(3, gson.toJson(game.game()));
+            stmt.setBytes(3, writeGame(game.game()));
             stmt.setString(4, game.whiteUsername());
             stmt.setString(5, game.blackUsername());
             stmt.executeUpdate();
@@ -202,7 +206,7 @@ public class MySqlDataAccess implements DataAccess {
             stmt.setInt(1, gameID);
             try (var rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    ChessGame chessGame = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+                    ChessGame chessGame = readGame(rs.getBytes("game_state"));
                     return new GameData(
                             rs.getInt("game_id"),
                             rs.getString("white_username"),
@@ -229,7 +233,7 @@ public class MySqlDataAccess implements DataAccess {
              var stmt = conn.prepareStatement(sql);
              var rs = stmt.executeQuery()) {
             while (rs.next()) {
-                ChessGame chessGame = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+                ChessGame chessGame = readGame(rs.getBytes("game_state"));
                 games.add(new GameData(
                         rs.getInt("game_id"),
                         rs.getString("white_username"),
@@ -258,7 +262,7 @@ public class MySqlDataAccess implements DataAccess {
         try (var conn = DatabaseManager.getConnection();
              var stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, game.gameName());
-            stmt.setString(2, gson.toJson(game.game()));
+            stmt.setBytes(2, writeGame(game.game()));
             stmt.setString(3, game.whiteUsername());
             stmt.setString(4, game.blackUsername());
             stmt.setInt(5, game.gameID());
@@ -267,4 +271,31 @@ public class MySqlDataAccess implements DataAccess {
             throw new DataAccessException("Error updating game", e);
         }
     }
+
+    /**
+     * Games are stored in the compact {@link ChessGameCodec} form
+     */
+    private static byte[] writeGame(ChessGame game) {
+        return game == null ? gson.toJson(null).getBytes(StandardCharsets.UTF_8) : ChessGameCodec.encode(game);
+    }
+
+    /**
+     * Reads a stored game, accepting rows still holding the JSON written
+     * before the binary encoding. The oldest of those predate castling
+     * rights; a game from one may only castle with a king and rook still on
+     * their home squares.
+     */
+    static ChessGame readGame(byte[] state) {
+        if (state == null) return null;
+        if (state.length > 0 && (state[0] == '{' || state[0] == 'n')) {
+            JsonElement json = JsonParser.parseString(new String(state, StandardCharsets.UTF_8));
+            ChessGame game = gson.fromJson(json, ChessGame.class);
+            if (game != null && !json.getAsJsonObject().has("castlingRights")) {
+                // setting the board again takes the rights from where the kings and rooks stand
+                game.setBoard(game.getBoard());
+            }
+            return game;
+        }
+        return ChessGameCodec.decode(state);
+    }
 }
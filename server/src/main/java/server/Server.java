@@ -42,12 +42,20 @@ public class Server {
                 CREATE TABLE IF NOT EXISTS games (
                     game_id INT PRIMARY KEY,
                     game_name VARCHAR(100) NOT NULL,
-                    game_state JSON NOT NULL,
+                    game_state BLOB NOT NULL,
                     white_username VARCHAR(50),
                     black_username VARCHAR(50),
                     FOREIGN KEY (white_username) REFERENCES users(username),
                     FOREIGN KEY (black_username) REFERENCES users(username)
                 )""");
+                // databases created before games were stored in binary kept them as JSON;
+                // the old rows stay readable as text
+                var column = stmt.executeQuery("""
+                SELECT DATA_TYPE FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = 'game_state'""");
+                if (column.next() && column.getString(1).equalsIgnoreCase("json")) {
+                    stmt.execute("ALTER TABLE games MODIFY game_state BLOB NOT NULL");
+                }
             }
         } catch (Exception e) {
             throw new RuntimeException("Database initialization failed", e);
@@ -2,6 +2,7 @@ package server.websocket;
 
 import chess.ChessGame;
 import chess.ChessMove;
+import chess.notation.San;
 import com.google.gson.Gson;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
@@ -144,6 +145,7 @@ public class WebSocketHandler {
         }
 
         // Try to apply the move in the ChessGame rules engine
+        String notation = moveToSan(game, move);
         try {
             game.makeMove(move);
             System.out.println("=== Move applied. New teamTurn: " + game.getTeamTurn());
@@ -170,16 +172,11 @@ public class WebSocketHandler {
 
         // 2) Send NOTIFICATION about the move to everyone except the mover
         ServerMessage moveNote = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
-        moveNote.setMessage(auth.username() + " moved " + moveToString(move));
+        moveNote.setMessage(auth.username() + " moved " + notation);
         connectionManager.broadcastToGameExcept(cmd.getGameID(), ctx, moveNote);
 
-        // 3) Check for check, checkmate, or stalemate on the opponent
-        ChessGame.TeamColor opponentColor =
-                (game.getTeamTurn() == ChessGame.TeamColor.WHITE)
-                        ? ChessGame.TeamColor.BLACK
-                        : ChessGame.TeamColor.WHITE;
-        System.out.println("=== After move, teamTurn=" + game.getTeamTurn()
-                + " opponentColor=" + opponentColor);
+        // 3) Check for check, checkmate, or stalemate on the opponent, who is now to move
+        ChessGame.TeamColor opponentColor = game.getTeamTurn();
 
         // Reload from DB to get fresh usernames
         gameData = dataAccess.getGame(cmd.getGameID());
@@ -190,30 +187,10 @@ public class WebSocketHandler {
                 ? gameData.whiteUsername()
                 : gameData.blackUsername();
 
-        System.out.println("=== After move, teamTurn=" + game.getTeamTurn()
-                + " opponentColor=" + opponentColor);
-        System.out.println("=== isInCheck(opponentColor)=" + game.isInCheck(opponentColor));
-        System.out.println("=== isInCheckmate(opponentColor)=" + game.isInCheckmate(opponentColor));
-        System.out.println("=== isInStalemate(opponentColor)=" + game.isInStalemate(opponentColor));
-
-        if (game.isInCheckmate(opponentColor)) {
-            System.out.println("=== Checkmate detected for " + opponentColor);
-            game.setGameOver(true);
-            GameData finalGame = new GameData(
-                    gameData.gameID(),
-                    gameData.whiteUsername(),
-                    gameData.blackUsername(),
-                    gameData.gameName(),
-                    game
-            );
-            dataAccess.updateGame(finalGame);
-
-            ServerMessage checkmateMsg = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
-            checkmateMsg.setMessage(opponentName + " is in checkmate! Game over.");
-            connectionManager.broadcastToGame(cmd.getGameID(), checkmateMsg);
+        ChessGame.GameStatus status = game.evaluateStatus(opponentColor);
+        System.out.println("=== Status of " + opponentColor + " after move: " + status);
 
-        } else if (game.isInStalemate(opponentColor)) {
-            System.out.println("=== Stalemate detected for " + opponentColor);
+        if (status.isGameOver()) {
             game.setGameOver(true);
             GameData finalGame = new GameData(
                     gameData.gameID(),
@@ -224,12 +201,17 @@ public class WebSocketHandler {
             );
             dataAccess.updateGame(finalGame);
 
-            ServerMessage stalemateMsg = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
-            stalemateMsg.setMessage("Stalemate! The game is a draw.");
-            connectionManager.broadcastToGame(cmd.getGameID(), stalemateMsg);
-
-        } else if (game.isInCheck(opponentColor)) {
-            System.out.println("=== Check detected for " + opponentColor);
+            ServerMessage endMsg = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
+            endMsg.setMessage(switch (status) {
+                case CHECKMATE -> opponentName + " is in checkmate! Game over.";
+                case THREEFOLD_REPETITION -> "Threefold repetition! The game is a draw.";
+                case FIFTY_MOVE_RULE -> "Fifty moves without a capture or pawn move! The game is a draw.";
+                case INSUFFICIENT_MATERIAL -> "Insufficient material to checkmate! The game is a draw.";
+                default -> "Stalemate! The game is a draw.";
+            });
+            connectionManager.broadcastToGame(cmd.getGameID(), endMsg);
+
+        } else if (status == ChessGame.GameStatus.CHECK) {
             ServerMessage checkMsg = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
             checkMsg.setMessage(opponentName + " is in check!");
             connectionManager.broadcastToGame(cmd.getGameID(), checkMsg);
@@ -339,6 +321,18 @@ public class WebSocketHandler {
         return null;
     }
 
+    /**
+     * Names a move in SAN, e.g. Nf3 or exd5+, falling back to coordinates if
+     * it isn't a legal move in the position
+     */
+    private String moveToSan(ChessGame game, ChessMove move) {
+        try {
+            return San.toSan(game, move);
+        } catch (IllegalArgumentException e) {
+            return moveToString(move);
+        }
+    }
+
     private String moveToString(ChessMove move) {
         return squareToString(move.getStartPosition()) +
                 squareToString(move.getEndPosition());
@@ -0,0 +1,36 @@
+package dataaccess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.CastlingRights;
+import chess.ChessGame;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class LegacyGameTests {
+    private final Gson gson = new Gson();
+
+    @Test
+    public void legacyRowWithAMovedKingCannotCastle() {
+        // the white king has stepped to f1 and the black king has not moved
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R4K1R w kq - 0 1");
+        JsonObject row = gson.toJsonTree(game).getAsJsonObject();
+        row.remove("castlingRights");
+
+        ChessGame read = MySqlDataAccess.readGame(gson.toJson(row).getBytes(StandardCharsets.UTF_8));
+        assertEquals(CastlingRights.fromBoard(game.getBoard()), read.getCastlingRights());
+        assertEquals(game.getCastlingRights(), read.getCastlingRights());
+        assertEquals(ChessGame.TeamColor.WHITE, read.getTeamTurn());
+    }
+
+    @Test
+    public void currentRowsKeepTheirCastlingRights() {
+        // both kings home, but white has given up castling
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w kq - 0 1");
+        byte[] row = gson.toJson(game).getBytes(StandardCharsets.UTF_8);
+        assertEquals(game.getCastlingRights(), MySqlDataAccess.readGame(row).getCastlingRights());
+    }
+}
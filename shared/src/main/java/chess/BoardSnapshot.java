@@ -0,0 +1,172 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable copy of a game's position: the twelve piece bitboards, the side
+ * to move, castling rights, en passant square, move counters and whether the
+ * game is over. {@link ChessGame} publishes one after each move it accepts, so
+ * observers, serializers and analysis can read a consistent position from any
+ * thread without locking while the game itself moves on.
+ * <p>
+ * A snapshot is 96 bytes of bitboards plus a few fields. Snapshots that differ
+ * only in {@link #isGameOver()} share the same bitboard array.
+ */
+public final class BoardSnapshot {
+    private final long[] pieceBitboards;
+    private final ChessGame.TeamColor teamTurn;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long positionKey;
+    private final boolean gameOver;
+
+    BoardSnapshot(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights, int enPassantSquare,
+                  int halfmoveClock, int fullmoveNumber, long positionKey, boolean gameOver) {
+        this(board.copyBitboards(), teamTurn, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber,
+                positionKey, gameOver);
+    }
+
+    private BoardSnapshot(long[] pieceBitboards, ChessGame.TeamColor teamTurn, int castlingRights,
+                          int enPassantSquare, int halfmoveClock, int fullmoveNumber, long positionKey,
+                          boolean gameOver) {
+        this.pieceBitboards = pieceBitboards;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.positionKey = positionKey;
+        this.gameOver = gameOver;
+    }
+
+    /**
+     * @return this snapshot with the game-over flag set as given, sharing its bitboards
+     */
+    BoardSnapshot withGameOver(boolean over) {
+        if (over == gameOver) return this;
+        return new BoardSnapshot(pieceBitboards, teamTurn, castlingRights, enPassantSquare, halfmoveClock,
+                fullmoveNumber, positionKey, over);
+    }
+
+    /**
+     * @param square square index, 0 (a1) through 63 (h8)
+     * @return the piece index on the square, or {@link ChessBoard#EMPTY}
+     */
+    public int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        for (int index = 0; index < ChessBoard.NUM_PIECE_INDICES; index++) {
+            if ((pieceBitboards[index] & bit) != 0) {
+                return index;
+            }
+        }
+        return ChessBoard.EMPTY;
+    }
+
+    /**
+     * @return the piece at the position, or null if the square is empty
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        int index = pieceIndexAt(ChessBoard.squareIndex(position));
+        return index == ChessBoard.EMPTY ? null : ChessBoard.pieceFor(index);
+    }
+
+    /**
+     * @return bitboard of every square holding the given colored piece type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[ChessBoard.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        long occupied = 0L;
+        for (long bitboard : pieceBitboards) {
+            occupied |= bitboard;
+        }
+        return occupied;
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the {@link ChessGame#positionKey() position key} at the time of the snapshot
+     */
+    public long getPositionKey() {
+        return positionKey;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return a new, mutable board holding the snapshot's pieces
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int index = 0; index < ChessBoard.NUM_PIECE_INDICES; index++) {
+            for (long bits = pieceBitboards[index]; bits != 0; bits &= bits - 1) {
+                board.setPiece(Long.numberOfTrailingZeros(bits), index);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Builds a separate game at the snapshot's position, for a caller that
+     * wants to analyze or serialize it as a {@link ChessGame}. Moves made
+     * before the snapshot are not carried over, so it can't detect repetitions
+     * of them.
+     *
+     * @return a new game owned by the caller
+     */
+    public ChessGame toGame() {
+        return new ChessGame(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardSnapshot that)) return false;
+        return teamTurn == that.teamTurn && castlingRights == that.castlingRights
+                && enPassantSquare == that.enPassantSquare && halfmoveClock == that.halfmoveClock
+                && fullmoveNumber == that.fullmoveNumber && gameOver == that.gameOver
+                && Arrays.equals(pieceBitboards, that.pieceBitboards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(positionKey, halfmoveClock, gameOver);
+    }
+
+    @Override
+    public String toString() {
+        return "BoardSnapshot{" +
+                "teamTurn=" + teamTurn +
+                ", board=" + toBoard() +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Castling rights packed into the low four bits of an {@code int}. A right is
+ * lost for good once the king or that side's rook leaves its home square, or
+ * the rook is captured there; {@link #afterMove} clears it with one AND per
+ * move instead of looking back through the game.
+ */
+public final class CastlingRights {
+    public static final int NONE = 0;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL = 15;
+
+    public static final int WHITE_KING_SQUARE = 4;
+    public static final int BLACK_KING_SQUARE = 60;
+
+    /** Rights that survive a move touching each square, as a start or end square. */
+    private static final int[] KEEP = new int[ChessBoard.NUM_SQUARES];
+
+    static {
+        Arrays.fill(KEEP, ALL);
+        KEEP[0] = ALL & ~WHITE_QUEENSIDE;
+        KEEP[7] = ALL & ~WHITE_KINGSIDE;
+        KEEP[WHITE_KING_SQUARE] = ALL & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        KEEP[56] = ALL & ~BLACK_QUEENSIDE;
+        KEEP[63] = ALL & ~BLACK_KINGSIDE;
+        KEEP[BLACK_KING_SQUARE] = ALL & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    private CastlingRights() {
+    }
+
+    /**
+     * @return the rights left after a move from {@code from} to {@code to}
+     */
+    public static int afterMove(int rights, int from, int to) {
+        return rights & KEEP[from] & KEEP[to];
+    }
+
+    /**
+     * @return the kingside and queenside rights of one team
+     */
+    public static int of(ChessGame.TeamColor team) {
+        return team == ChessGame.TeamColor.WHITE
+                ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    }
+
+    /**
+     * Assumes every king and rook standing on its home square has never moved,
+     * which is the most a bare board can say.
+     *
+     * @return the rights a board's piece placement allows
+     */
+    public static int fromBoard(ChessBoard board) {
+        int rights = NONE;
+        int whiteRook = ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        int blackRook = ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if (board.getKingSquare(ChessGame.TeamColor.WHITE) == WHITE_KING_SQUARE) {
+            if (board.pieceIndexAt(7) == whiteRook) rights |= WHITE_KINGSIDE;
+            if (board.pieceIndexAt(0) == whiteRook) rights |= WHITE_QUEENSIDE;
+        }
+        if (board.getKingSquare(ChessGame.TeamColor.BLACK) == BLACK_KING_SQUARE) {
+            if (board.pieceIndexAt(63) == blackRook) rights |= BLACK_KINGSIDE;
+            if (board.pieceIndexAt(56) == blackRook) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+}
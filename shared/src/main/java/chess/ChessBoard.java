@@ -1,17 +1,70 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.*;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Internally the board is a set of twelve 64-bit occupancy bitboards (one per
+ * colored piece type) plus per-color and whole-board aggregates. Square
+ * {@code 0} is a1 and square {@code 63} is h8, so a square index is
+ * {@code (row - 1) * 8 + (column - 1)}. A 64-entry mailbox mirrors the
+ * bitboards so {@link #getPiece} stays a single array read, and each side's
+ * king square, the board's {@link Zobrist} key and its
+ * {@link PieceSquareTables evaluation totals} are kept up to date as pieces
+ * are added and removed.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
-    ChessPiece[][] squares = new ChessPiece[8][8];
+    public static final int NUM_SQUARES = 64;
+    public static final int NUM_PIECE_INDICES = 12;
+    public static final int EMPTY = -1;
+
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+
+    private static final ChessPiece[] PIECES = new ChessPiece[NUM_PIECE_INDICES];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECES[pieceIndex(color, type)] = ChessPiece.of(color, type);
+            }
+        }
+    }
+
+    private final long[] pieceBitboards = new long[NUM_PIECE_INDICES];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+    private final byte[] mailbox = new byte[NUM_SQUARES];
+    private final int[] kingSquares = {EMPTY, EMPTY};
+    private long zobristKey;
+    private int squareScore;
+    private int phase;
+
     public ChessBoard() {
-        
+        Arrays.fill(mailbox, (byte) EMPTY);
+    }
+
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, NUM_PIECE_INDICES);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, 2);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, NUM_SQUARES);
+        occupied = other.occupied;
+        kingSquares[0] = other.kingSquares[0];
+        kingSquares[1] = other.kingSquares[1];
+        zobristKey = other.zobristKey;
+        squareScore = other.squareScore;
+        phase = other.phase;
     }
 
     /**
@@ -21,7 +74,12 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = squareIndex(position);
+        if (piece == null) {
+            clearSquare(square);
+        } else {
+            setPiece(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -32,43 +90,197 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        int index = mailbox[squareIndex(position)];
+        return index == EMPTY ? null : PIECES[index];
     }
+
+    /**
+     * Places a piece on a square, replacing whatever was there
+     *
+     * @param square     square index, 0 (a1) through 63 (h8)
+     * @param pieceIndex piece index as returned by {@link #pieceIndex}
+     */
+    public void setPiece(int square, int pieceIndex) {
+        clearSquare(square);
+        long bit = 1L << square;
+        pieceBitboards[pieceIndex] |= bit;
+        colorBitboards[pieceIndex / 6] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) pieceIndex;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        squareScore += PieceSquareTables.packedScore(pieceIndex, square);
+        phase += PieceSquareTables.phaseWeight(pieceIndex);
+        if (pieceIndex % 6 == KING) {
+            kingSquares[pieceIndex / 6] = square;
+        }
+    }
+
+    /**
+     * Removes whatever piece is on a square
+     *
+     * @param square square index, 0 (a1) through 63 (h8)
+     */
+    public void clearSquare(int square) {
+        int index = mailbox[square];
+        if (index == EMPTY) return;
+        long mask = ~(1L << square);
+        pieceBitboards[index] &= mask;
+        colorBitboards[index / 6] &= mask;
+        occupied &= mask;
+        mailbox[square] = (byte) EMPTY;
+        zobristKey ^= Zobrist.piece(index, square);
+        squareScore -= PieceSquareTables.packedScore(index, square);
+        phase -= PieceSquareTables.phaseWeight(index);
+        if (index % 6 == KING && kingSquares[index / 6] == square) {
+            // a board built by hand may hold a second king of the same color
+            long kings = pieceBitboards[index];
+            kingSquares[index / 6] = kings == 0 ? EMPTY : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * @param square square index, 0 (a1) through 63 (h8)
+     * @return the piece index on the square, or {@link #EMPTY}
+     */
+    public int pieceIndexAt(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * @return square index of the team's king, or {@link #EMPTY} if it has none
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return position of the team's king, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square == EMPTY ? null : ChessPosition.ofSquare(square);
+    }
+
+    /**
+     * @return Zobrist key of the pieces on the board, without any game state
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return bitboard of every square holding the given colored piece type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return the material and square scores of every piece, packed as
+     * {@link PieceSquareTables#midgame(int)} and {@link PieceSquareTables#endgame(int)} read them
+     */
+    public int getSquareScore() {
+        return squareScore;
+    }
+
+    /**
+     * @return the game phase the pieces on the board add up to, from 0 up
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return a copy of the twelve piece bitboards, indexed by {@link #pieceIndex}
+     */
+    long[] copyBitboards() {
+        return pieceBitboards.clone();
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        squares = new ChessPiece[8][8];
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        Arrays.fill(mailbox, (byte) EMPTY);
+        Arrays.fill(kingSquares, EMPTY);
+        occupied = 0L;
+        zobristKey = 0L;
+        squareScore = 0;
+        phase = 0;
 
         ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
         ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
 
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(white, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col), new ChessPiece(black, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col), ChessPiece.of(white, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), ChessPiece.of(black, ChessPiece.PieceType.PAWN));
         }
 
-        addPiece(new ChessPosition(1, 1), new ChessPiece(white, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(white, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 1), new ChessPiece(black, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(black, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(white, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(white, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(black, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(black, ChessPiece.PieceType.ROOK));
 
-        addPiece(new ChessPosition(1, 2), new ChessPiece(white, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(white, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(black, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(black, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(white, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(white, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(black, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(black, ChessPiece.PieceType.KNIGHT));
 
-        addPiece(new ChessPosition(1, 3), new ChessPiece(white, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(white, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(black, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(black, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(white, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(white, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(black, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(black, ChessPiece.PieceType.BISHOP));
 
-        addPiece(new ChessPosition(1, 4), new ChessPiece(white, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(black, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(white, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(black, ChessPiece.PieceType.QUEEN));
 
-        addPiece(new ChessPosition(1, 5), new ChessPiece(white, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(black, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(white, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(black, ChessPiece.PieceType.KING));
+    }
+
+    /**
+     * @return index 0-11 identifying a colored piece type in the bitboard arrays
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return the shared piece instance for a piece index
+     */
+    public static ChessPiece pieceFor(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
+    /**
+     * @return the square index, 0 (a1) through 63 (h8), of a position
+     */
+    public static int squareIndex(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + (position.getColumn() - 1);
+    }
+
+    /**
+     * @return the canonical position for a square index, 0 (a1) through 63 (h8)
+     */
+    public static ChessPosition positionOf(int square) {
+        return ChessPosition.ofSquare(square);
     }
 
     @Override
@@ -77,18 +289,25 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 
     @Override
     public String toString() {
-        return "ChessBoard{" +
-                "squares=" + Arrays.deepToString(squares) +
-                '}';
+        StringBuilder sb = new StringBuilder("ChessBoard{\n");
+        for (int row = 8; row >= 1; row--) {
+            sb.append('|');
+            for (int col = 1; col <= 8; col++) {
+                int index = mailbox[(row - 1) * 8 + (col - 1)];
+                sb.append(index == EMPTY ? ' ' : PIECES[index].toChar()).append('|');
+            }
+            sb.append('\n');
+        }
+        return sb.append('}').toString();
     }
 }
@@ -0,0 +1,76 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter that keeps the JSON form of a {@link ChessBoard} as the
+ * original {@code {"squares": [[piece, ...], ...]}} grid, so games already
+ * stored in the database and clients reading LOAD_GAME messages are not
+ * affected by the bitboard representation.
+ */
+public class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+    private final ChessPieceAdapter pieces = new ChessPieceAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("squares");
+        out.beginArray();
+        for (int row = 0; row < 8; row++) {
+            out.beginArray();
+            for (int col = 0; col < 8; col++) {
+                int index = board.pieceIndexAt(row * 8 + col);
+                pieces.write(out, index == ChessBoard.EMPTY ? null : ChessBoard.pieceFor(index));
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("squares")) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            int row = 0;
+            for (; in.hasNext(); row++) {
+                if (row == 8) throw new JsonParseException("ChessBoard squares has more than 8 rows");
+                in.beginArray();
+                int col = 0;
+                for (; in.hasNext(); col++) {
+                    if (col == 8) throw new JsonParseException("ChessBoard squares row " + row + " has more than 8 squares");
+                    ChessPiece piece = pieces.read(in);
+                    if (piece != null) {
+                        board.setPiece(row * 8 + col, ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+                    }
+                }
+                if (col != 8) throw new JsonParseException("ChessBoard squares row " + row + " has " + col + " squares");
+                in.endArray();
+            }
+            if (row != 8) throw new JsonParseException("ChessBoard squares has " + row + " rows");
+            in.endArray();
+        }
+        in.endObject();
+        return board;
+    }
+}
@@ -1,5 +1,8 @@
 package chess;
 
+import chess.MoveCalculators.AttackTables;
+import chess.MoveCalculators.LegalMoveGenerator;
+
 import java.util.Collection;
 import java.util.*;
 
@@ -10,11 +13,33 @@ import java.util.*;
  * signature of the existing methods.
  */
 public class ChessGame {
-    private static final int boardSize = 8;
-
     private ChessBoard board;
     private TeamColor teamTurn;
     private boolean gameOver;
+    private int castlingRights = CastlingRights.ALL;
+    private int enPassantSquare = ChessBoard.EMPTY;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private PositionHistory history = new PositionHistory();
+    private final transient MoveList scratchMoves = new MoveList();
+    private final transient UndoStack undoStack = new UndoStack();
+    private final transient LegalMoveCache moveCache = new LegalMoveCache();
+    private transient volatile BoardSnapshot snapshot;
+
+    // undo record layout: the packed move with its flags, the captured piece
+    // index + 1 (0 for none), the team that was to move, the castling rights,
+    // the en passant square + 1 (0 for none) and the halfmove clock
+    private static final int UNDO_MOVE_MASK = (1 << 19) - 1;
+    private static final int UNDO_CAPTURED_SHIFT = 19;
+    private static final int UNDO_TURN_SHIFT = 23;
+    private static final int UNDO_CASTLING_SHIFT = 24;
+    private static final int UNDO_EN_PASSANT_SHIFT = 28;
+    private static final int UNDO_CLOCK_SHIFT = 35;
+
+    private static final TeamColor[] TEAMS = TeamColor.values();
+
+    /** Squares a1, c1, ... h2, ...: the dark squares. */
+    private static final long DARK_SQUARES = 0xAA55AA55AA55AA55L;
 
     public ChessGame() {
         this.board = new ChessBoard();
@@ -23,6 +48,30 @@ public class ChessGame {
         this.gameOver = false;
     }
 
+    /**
+     * Creates a game at a snapshot's position, with no moves to take back
+     */
+    ChessGame(BoardSnapshot snapshot) {
+        this(snapshot.toBoard(), snapshot.getTeamTurn(), snapshot.getCastlingRights(),
+                snapshot.getEnPassantSquare(), snapshot.getHalfmoveClock(), snapshot.getFullmoveNumber(),
+                snapshot.isGameOver());
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Creates a game from its stored state, with no moves to take back
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, int enPassantSquare,
+              int halfmoveClock, int fullmoveNumber, boolean gameOver) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.gameOver = gameOver;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -37,6 +86,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         this.teamTurn = team;
+        this.snapshot = null;
     }
 
     /**
@@ -45,43 +95,123 @@ public class ChessGame {
     public enum TeamColor {
         WHITE, BLACK;
 
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
+
         @Override
         public String toString() {
             return this == WHITE ? "white" : "black";
         }
     }
 
+    /**
+     * Where a game stands for the team about to move
+     */
+    public enum GameStatus {
+        IN_PROGRESS, CHECK, CHECKMATE, STALEMATE,
+        THREEFOLD_REPETITION, FIFTY_MOVE_RULE, INSUFFICIENT_MATERIAL;
+
+        /**
+         * @return True if the game has ended, by checkmate or any kind of draw
+         */
+        public boolean isGameOver() {
+            return this != IN_PROGRESS && this != CHECK;
+        }
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
      * @param startPosition the piece to get valid moves for
      * @return Set of valid moves for requested piece, or null if no piece at
-     * startPosition
+     * startPosition. For the team to move the set comes from the position's
+     * move cache and is read-only.
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece currPiece = board.getPiece(startPosition);
-        if (currPiece == null) return null;
-        Collection<ChessMove> possibleMoves = currPiece.pieceMoves(board, startPosition);
-        HashSet<ChessMove> validMoves = new HashSet<>();
-
-        for (ChessMove move : possibleMoves) {
-            ChessPiece originalStartPiece = board.getPiece(startPosition);
-            ChessPiece originalEndPiece = board.getPiece(move.getEndPosition());
-
-            ChessPiece movingPiece = (move.getPromotionPiece() != null)
-                    ? new ChessPiece(currPiece.getTeamColor(), move.getPromotionPiece())
-                    : currPiece;
-            board.addPiece(startPosition, null);
-            board.addPiece(move.getEndPosition(), movingPiece);
-
-            if (!isInCheck(currPiece.getTeamColor())) {
-                validMoves.add(move);
-            }
+        int square = ChessBoard.squareIndex(startPosition);
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex == ChessBoard.EMPTY) return null;
+        if (ChessBoard.pieceFor(pieceIndex).getTeamColor() == teamTurn) {
+            return cachedMoves().view(square);
+        }
+        scratchMoves.clear();
+        legalMoves(square, scratchMoves);
+        return scratchMoves.toChessMoves();
+    }
+
+    /**
+     * Appends the legal moves of the piece on a square to a reusable move list,
+     * as {@link PackedMove packed moves}. Nothing is allocated.
+     *
+     * @param square square index, 0 (a1) through 63 (h8)
+     * @param moves  list the moves are appended to
+     */
+    public void legalMoves(int square, MoveList moves) {
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex == ChessBoard.EMPTY) return;
+        if (ChessBoard.pieceFor(pieceIndex).getTeamColor() == teamTurn) {
+            cachedMoves().copyMoves(square, moves);
+            return;
+        }
+        LegalMoveGenerator.generatePieceMoves(board, square, castlingRights,
+                enPassantFor(ChessBoard.pieceFor(pieceIndex).getTeamColor()), moves);
+    }
+
+    /**
+     * Appends every legal move of a team to a reusable move list, as
+     * {@link PackedMove packed moves}. Nothing is allocated. The move cache is
+     * read if it already holds this position but is not filled, so a search
+     * walking through positions once doesn't pay for indexing them.
+     *
+     * @param teamColor team whose moves to generate
+     * @param moves     list the moves are appended to
+     */
+    public void legalMoves(TeamColor teamColor, MoveList moves) {
+        if (teamColor == teamTurn && moveCache.reuse(positionKey())) {
+            moveCache.copyMoves(moves);
+            return;
+        }
+        LegalMoveGenerator.generateMoves(board, teamColor, castlingRights, enPassantFor(teamColor), moves);
+    }
+
+    /**
+     * Only the team to move may capture en passant, and only right after the
+     * double push that allowed it.
+     */
+    private int enPassantFor(TeamColor teamColor) {
+        return teamColor == teamTurn ? enPassantSquare : ChessBoard.EMPTY;
+    }
 
-            board.addPiece(move.getEndPosition(), originalEndPiece);
-            board.addPiece(startPosition, originalStartPiece);
+    /**
+     * @return the move cache, filled with the legal moves of the team to move
+     * if it doesn't hold them already
+     */
+    private LegalMoveCache cachedMoves() {
+        long key = positionKey();
+        if (!moveCache.lookup(key)) {
+            LegalMoveGenerator.generateMoves(board, teamTurn, castlingRights, enPassantSquare, moveCache.buffer());
+            moveCache.index(key);
         }
-        return validMoves;
+        return moveCache;
+    }
+
+    /**
+     * @return how many move queries were answered from the move cache
+     */
+    public long getMoveCacheHits() {
+        return moveCache.hits();
+    }
+
+    /**
+     * @return how many move queries had to generate the position's moves into
+     * the move cache
+     */
+    public long getMoveCacheMisses() {
+        return moveCache.misses();
     }
 
     /**
@@ -91,27 +221,378 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        boolean isTeamsTurn = piece != null && getTeamTurn() == piece.getTeamColor();
-        Collection<ChessMove> moves = validMoves(move.getStartPosition());
-        if (moves == null) {
+        ChessPosition start = move.getStartPosition();
+        ChessPiece piece = start.isOnBoard() ? board.getPiece(start) : null;
+        if (piece == null) {
             throw new InvalidMoveException("No valid moves available");
         }
-        boolean isValidMove = moves.contains(move);
+        boolean isTeamsTurn = getTeamTurn() == piece.getTeamColor();
+        boolean isValidMove = isLegal(move);
 
         if (isValidMove && isTeamsTurn) {
-            ChessPiece pieceToMove = board.getPiece(move.getStartPosition());
-            if (move.getPromotionPiece() != null) {
-                pieceToMove = new ChessPiece(pieceToMove.getTeamColor(), move.getPromotionPiece());
+            makeMove(PackedMove.encode(move));
+            if (snapshot != null) {
+                // someone is reading snapshots; keep theirs current
+                publishSnapshot();
             }
-            board.addPiece(move.getStartPosition(), null);
-            board.addPiece(move.getEndPosition(), pieceToMove);
-            setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
         } else {
             throw new InvalidMoveException(String.format("Valid move: %b  Your Turn: %b", isValidMove, isTeamsTurn));
         }
     }
 
+    /**
+     * Gets the last published snapshot of the position. Snapshots are only
+     * kept once someone asks for one: the first call, or the first after the
+     * board or turn is set, takes it on the calling thread, so make it before
+     * handing the game to another thread. From then on it is safe to call from
+     * any thread while this game is being played, as {@link #makeMove(ChessMove)}
+     * publishes a new snapshot only once its move is complete.
+     *
+     * @return an immutable copy of the position
+     */
+    public BoardSnapshot snapshot() {
+        BoardSnapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    /**
+     * Takes a snapshot of the current position and publishes it to
+     * {@link #snapshot()} readers. {@link #makeMove(ChessMove)} does this itself;
+     * a caller playing {@link PackedMove packed moves} or taking moves back
+     * calls it when the position it has reached should be seen.
+     *
+     * @return the new snapshot
+     */
+    public BoardSnapshot publishSnapshot() {
+        BoardSnapshot current = new BoardSnapshot(board, teamTurn, castlingRights, enPassantSquare,
+                halfmoveClock, fullmoveNumber, positionKey(), gameOver);
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * Checks one move for whichever team owns the piece on its start square:
+     * that the piece can reach the end square (or castle, or capture en passant),
+     * that the promotion piece fits, and that the move doesn't leave that team's
+     * king in check. Cheaper than
+     * building {@link #validMoves} and searching it.
+     *
+     * @param move the move to check
+     * @return True if the move is legal, ignoring whose turn it is
+     */
+    public boolean isLegal(ChessMove move) {
+        if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            return false;
+        }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) return false;
+        if (piece.getTeamColor() == teamTurn && moveCache.reuse(positionKey())) {
+            return moveCache.contains(PackedMove.encode(move));
+        }
+        return LegalMoveGenerator.isLegal(board, PackedMove.encode(move), castlingRights,
+                enPassantFor(piece.getTeamColor()));
+    }
+
+    /**
+     * Plays a {@link PackedMove packed move} without checking that it is legal,
+     * recording what is needed to take it back with {@link #unmakeMove()}.
+     * A king moving two files castles and a pawn moving diagonally onto the en
+     * passant square captures en passant, whatever flags the move carries.
+     * Castling rights and the en passant square are updated as part of the move.
+     * Nothing is allocated.
+     *
+     * @param move packed move, normally one produced by {@link #legalMoves}
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moving = board.pieceIndexAt(from);
+        int captured = board.pieceIndexAt(to);
+        ChessPiece piece = ChessBoard.pieceFor(moving);
+        TeamColor team = piece.getTeamColor();
+        moveCache.invalidate();
+
+        if (history == null) {
+            history = new PositionHistory();
+        }
+        if (history.isEmpty() || history.lastKey() != positionKey()) {
+            // the board or turn was set directly since the last move
+            history.clear();
+            history.push(positionKey(), halfmoveClock);
+        }
+
+        int flags = PackedMove.NONE;
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            flags = PackedMove.CASTLE;
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN && to == enPassantSquare
+                && ((to - from) & 7) != 0) {
+            flags = PackedMove.EN_PASSANT;
+            captured = ChessBoard.pieceIndex(team.opponent(), ChessPiece.PieceType.PAWN);
+        }
+        undoStack.push((move & PackedMove.MOVE_MASK | flags)
+                | (long) (captured + 1) << UNDO_CAPTURED_SHIFT
+                | (long) teamTurn.ordinal() << UNDO_TURN_SHIFT
+                | (long) castlingRights << UNDO_CASTLING_SHIFT
+                | (long) (enPassantSquare + 1) << UNDO_EN_PASSANT_SHIFT
+                | (long) Math.min(halfmoveClock, 0xFFFF) << UNDO_CLOCK_SHIFT);
+
+        ChessPiece.PieceType promotion = PackedMove.promotionType(move);
+        board.clearSquare(from);
+        board.setPiece(to, promotion == null ? moving : ChessBoard.pieceIndex(team, promotion));
+        if (flags == PackedMove.EN_PASSANT) {
+            board.clearSquare(enPassantVictim(to, team));
+        } else if (flags == PackedMove.CASTLE) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            board.setPiece((from + to) / 2, board.pieceIndexAt(rookFrom));
+            board.clearSquare(rookFrom);
+        }
+
+        castlingRights = CastlingRights.afterMove(castlingRights, from, to);
+        enPassantSquare = ChessBoard.EMPTY;
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16) {
+            int passed = (from + to) / 2;
+            // only remember the square if a pawn can actually take there, so
+            // otherwise-equal positions keep equal keys
+            if ((AttackTables.pawnAttacks(team, passed)
+                    & board.getBitboard(team.opponent(), ChessPiece.PieceType.PAWN)) != 0) {
+                enPassantSquare = passed;
+            }
+        }
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN || captured != ChessBoard.EMPTY;
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        teamTurn = teamTurn.opponent();
+        history.push(positionKey(), halfmoveClock);
+    }
+
+    /**
+     * @return the square of the pawn taken by an en passant capture landing on {@code to}
+     */
+    private static int enPassantVictim(int to, TeamColor capturer) {
+        return capturer == TeamColor.WHITE ? to - 8 : to + 8;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove}, restoring the
+     * board, turn, castling rights and en passant square exactly as they were.
+     * Nothing is allocated.
+     *
+     * @throws IllegalStateException if no moves have been played since the board
+     *                               was last set
+     */
+    public void unmakeMove() {
+        long entry = undoStack.pop();
+        int move = (int) (entry & UNDO_MOVE_MASK);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int captured = (int) (entry >>> UNDO_CAPTURED_SHIFT & 15) - 1;
+        teamTurn = (entry >>> UNDO_TURN_SHIFT & 1) == 0 ? TeamColor.WHITE : TeamColor.BLACK;
+        castlingRights = (int) (entry >>> UNDO_CASTLING_SHIFT & CastlingRights.ALL);
+        enPassantSquare = (int) (entry >>> UNDO_EN_PASSANT_SHIFT & 127) - 1;
+        halfmoveClock = (int) (entry >>> UNDO_CLOCK_SHIFT & 0xFFFF);
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+        history.pop();
+        moveCache.invalidate();
+
+        int moved = board.pieceIndexAt(to);
+        if (PackedMove.promotion(move) != 0) {
+            moved = ChessBoard.pieceIndex(teamTurn, ChessPiece.PieceType.PAWN);
+        }
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            board.setPiece(rookFrom, board.pieceIndexAt((from + to) / 2));
+            board.clearSquare((from + to) / 2);
+        }
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            board.clearSquare(to);
+            board.setPiece(enPassantVictim(to, teamTurn), captured);
+        } else if (captured == ChessBoard.EMPTY) {
+            board.clearSquare(to);
+        } else {
+            board.setPiece(to, captured);
+        }
+        board.setPiece(from, moved);
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key for the current position: the pieces on the
+     * board, the side to move, the castling rights and the en passant file.
+     * Equal positions always have equal keys, and the key costs a few XORs to
+     * read because the board keeps its part up to date on every change.
+     *
+     * @return the position's key
+     */
+    public long positionKey() {
+        long key = board.getZobristKey() ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.blackToMove() : key;
+    }
+
+    /**
+     * @return the keys of the positions that can still repeat, oldest first and
+     * ending with the current one, or none if the board was set since the last move
+     */
+    long[] repeatableHistory() {
+        if (history == null || history.isEmpty() || history.lastKey() != positionKey()) {
+            return new long[0];
+        }
+        return history.repeatableKeys();
+    }
+
+    /**
+     * Replaces the position history with keys from {@link #repeatableHistory()}
+     */
+    void restoreHistory(long[] keys) {
+        history.clear();
+        for (int ply = 0; ply < keys.length; ply++) {
+            history.push(keys[ply], ply);
+        }
+    }
+
+    /**
+     * @return a separate game at the current position, with no moves to take back
+     */
+    ChessGame copyPosition() {
+        return new ChessGame(new ChessBoard(board), teamTurn, castlingRights, enPassantSquare, halfmoveClock,
+                fullmoveNumber, gameOver);
+    }
+
+    /**
+     * Copies the game for a caller that wants to play moves on it without
+     * touching this one, such as a search. The copy has no moves to take back
+     * but remembers the positions that can still repeat, so it detects
+     * repetitions of moves played here.
+     *
+     * @return a separate game at the current position
+     */
+    public ChessGame copy() {
+        ChessGame copy = copyPosition();
+        copy.restoreHistory(repeatableHistory());
+        return copy;
+    }
+
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up
+     * after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation. The halfmove
+     * clock and fullmove number may be left off, and default to 0 and 1.
+     * Castling rights whose king or rook isn't on its home square are dropped,
+     * as is an en passant square no pawn can capture onto.
+     *
+     * @param fen the position, e.g. {@code "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"}
+     * @return a new game at that position
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the current position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    /**
+     * @return True if the current position has now occurred three times with
+     * the same side to move, castling rights and en passant square
+     */
+    public boolean isThreefoldRepetition() {
+        return history != null && !history.isEmpty() && history.lastKey() == positionKey()
+                && history.occurrences() >= 3;
+    }
+
+    /**
+     * @return True if the current position has occurred before with the same
+     * side to move, castling rights and en passant square
+     */
+    public boolean isRepetition() {
+        return history != null && !history.isEmpty() && history.lastKey() == positionKey()
+                && history.occurrences() >= 2;
+    }
+
+    /**
+     * @return True if fifty moves by each side have passed without a capture or
+     * pawn move
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Determines if neither side can possibly checkmate: bare kings, a single
+     * minor piece, or only bishops that all stand on squares of one color.
+     * Reads the board's piece bitboards, so it costs a few popcounts.
+     *
+     * @return True if there isn't enough material left to mate
+     */
+    public boolean isInsufficientMaterial() {
+        long heavy = 0L;
+        long knights = 0L;
+        long bishops = 0L;
+        for (TeamColor color : TEAMS) {
+            heavy |= board.getBitboard(color, ChessPiece.PieceType.PAWN)
+                    | board.getBitboard(color, ChessPiece.PieceType.ROOK)
+                    | board.getBitboard(color, ChessPiece.PieceType.QUEEN);
+            knights |= board.getBitboard(color, ChessPiece.PieceType.KNIGHT);
+            bishops |= board.getBitboard(color, ChessPiece.PieceType.BISHOP);
+        }
+        if (heavy != 0) return false;
+        if (Long.bitCount(knights | bishops) <= 1) return true;
+        return knights == 0 && ((bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0);
+    }
+
+    /**
+     * @return the remaining {@link CastlingRights} bits
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn may capture en passant onto this turn, or
+     * {@link ChessBoard#EMPTY}
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return how many moves {@link #unmakeMove()} can take back
+     */
+    public int undoDepth() {
+        return undoStack.size();
+    }
+
+    /**
+     * Appends the moves {@link #unmakeMove()} can take back, oldest first, as
+     * {@link PackedMove packed moves}
+     *
+     * @param moves list the moves are appended to
+     */
+    public void playedMoves(MoveList moves) {
+        for (int depth = undoStack.size() - 1; depth >= 0; depth--) {
+            moves.add((int) (undoStack.get(depth) & UNDO_MOVE_MASK));
+        }
+    }
+
     /**
      * Determines if the given team is in check
      *
@@ -119,31 +600,68 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPos = null;
-        for (int y = 1; y <= boardSize && kingPos == null; y++) {
-            for (int x = 1; x <= boardSize && kingPos == null; x++) {
-                ChessPiece currPiece = board.getPiece(new ChessPosition(y, x));
-                if (currPiece != null && currPiece.getTeamColor() == teamColor
-                        && currPiece.getPieceType() == ChessPiece.PieceType.KING) {
-                    kingPos = new ChessPosition(y, x);
-                }
-            }
-        }
-        if (kingPos == null) {
+        if (board.getKingSquare(teamColor) == ChessBoard.EMPTY) {
             throw new IllegalStateException("King not found on board for team: " + teamColor);
         }
-        for (int y = 1; y <= boardSize; y++) {
-            for (int x = 1; x <= boardSize; x++) {
-                ChessPiece currPiece = board.getPiece(new ChessPosition(y, x));
-                if (currPiece == null || currPiece.getTeamColor() == teamColor) continue;
-                for (ChessMove enemyMove : currPiece.pieceMoves(board, new ChessPosition(y, x))) {
-                    if (enemyMove.getEndPosition().equals(kingPos)) {
-                        return true;
-                    }
-                }
-            }
+        return isKingAttacked(teamColor);
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square, whether or not the
+     * square is occupied. Probes outward from the square rather than generating
+     * the attacking team's moves.
+     *
+     * @param position the square to test
+     * @param byColor  which team's pieces to look for
+     * @return True if a {@code byColor} piece attacks {@code position}
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        return LegalMoveGenerator.isSquareAttacked(board, ChessBoard.squareIndex(position), byColor,
+                board.getOccupied());
+    }
+
+    /**
+     * @return True if the team's king is attacked; false if it has no king
+     */
+    private boolean isKingAttacked(TeamColor teamColor) {
+        int kingSquare = board.getKingSquare(teamColor);
+        return kingSquare != ChessBoard.EMPTY
+                && LegalMoveGenerator.isSquareAttacked(board, kingSquare, teamColor.opponent(), board.getOccupied());
+    }
+
+    /**
+     * Works out in one pass whether a team is in check and whether it has any
+     * legal move, which together decide check, checkmate and stalemate, then
+     * whether the game is drawn by repetition, the fifty-move rule or lack of
+     * material. The legal-move search stops at the first move found; the draw
+     * checks read state kept up to date by {@link #makeMove}.
+     *
+     * @param teamColor which team to evaluate
+     * @return the team's status
+     */
+    public GameStatus evaluateStatus(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        if (!hasAnyLegalMove(teamColor)) {
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
         }
-        return false;
+        if (isInsufficientMaterial()) return GameStatus.INSUFFICIENT_MATERIAL;
+        if (isThreefoldRepetition()) return GameStatus.THREEFOLD_REPETITION;
+        if (isFiftyMoveRule()) return GameStatus.FIFTY_MOVE_RULE;
+        return inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Determines if a team has at least one legal move, stopping at the first one
+     * found rather than listing them all.
+     *
+     * @param teamColor which team to look at
+     * @return True if the team can move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        if (teamColor == teamTurn && moveCache.reuse(positionKey())) {
+            return !moveCache.isEmpty();
+        }
+        return LegalMoveGenerator.hasLegalMove(board, teamColor, enPassantFor(teamColor));
     }
 
     /**
@@ -153,21 +671,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) return false;
-
-        for (int y = 1; y <= boardSize; y++) {
-            for (int x = 1; x <= boardSize; x++) {
-                ChessPosition currPosition = new ChessPosition(y, x);
-                ChessPiece currPiece = board.getPiece(currPosition);
-                if (currPiece != null && currPiece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(currPosition);
-                    if (moves != null && !moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return evaluateStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -178,29 +682,27 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) return false;
-        for (int y = 1; y <= boardSize; y++) {
-            for (int x = 1; x <= boardSize; x++) {
-                ChessPosition currPosition = new ChessPosition(y, x);
-                ChessPiece currPiece = board.getPiece(currPosition);
-                if (currPiece != null && currPiece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(currPosition);
-                    if (moves != null && !moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return evaluateStatus(teamColor) == GameStatus.STALEMATE;
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. Kings and rooks on their
+     * home squares are taken as unmoved, so they may castle.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        castlingRights = CastlingRights.fromBoard(board);
+        enPassantSquare = ChessBoard.EMPTY;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoStack.clear();
+        moveCache.invalidate();
+        snapshot = null;
+        if (history != null) {
+            history.clear();
+        }
     }
 
     /**
@@ -222,6 +724,10 @@ public class ChessGame {
 
     public void setGameOver(boolean over) {
         this.gameOver = over;
+        BoardSnapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.withGameOver(over);
+        }
     }
 
 
@@ -237,11 +743,12 @@ public class ChessGame {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessGame chessGame = (ChessGame) o;
-        return teamTurn == chessGame.teamTurn && Objects.equals(board, chessGame.board);
+        return teamTurn == chessGame.teamTurn && castlingRights == chessGame.castlingRights
+                && enPassantSquare == chessGame.enPassantSquare && Objects.equals(board, chessGame.board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        return Long.hashCode(positionKey());
     }
 }
@@ -0,0 +1,150 @@
+package chess;
+
+/**
+ * Compact, versioned binary form of a {@link ChessGame}, for storing games and
+ * sending them where JSON isn't needed. Encoding and decoding read and write
+ * the game's state directly; no reflection is involved.
+ * <p>
+ * Version 2 layout, multi-byte values big-endian:
+ * <pre>
+ *  0      version (2)
+ *  1      bit 0 black to move, bit 1 game over, bits 4-7 castling rights
+ *  2      en passant square + 1, or 0 for none
+ *  3-4    halfmove clock
+ *  5-6    fullmove number
+ *  7-14   occupancy bitboard
+ *  15-    piece index of each occupied square from a1 up, one nibble each,
+ *         low nibble first
+ *  then   count of repeatable position keys (2 bytes), then the keys (8 bytes each)
+ * </pre>
+ * The board takes 8 bytes plus half a byte per piece, 24 bytes for a full set
+ * of 32 pieces. Version 1, which had no fullmove number, is still read; its
+ * games start counting full moves from 1.
+ */
+public final class ChessGameCodec {
+    public static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 15;
+    private static final int V1_HEADER_BYTES = 13;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int GAME_OVER = 2;
+    private static final int CASTLING_SHIFT = 4;
+
+    private ChessGameCodec() {
+    }
+
+    /**
+     * @return the game's binary encoding
+     */
+    public static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupied();
+        int pieceBytes = (Long.bitCount(occupied) + 1) / 2;
+        long[] history = game.repeatableHistory();
+        byte[] out = new byte[HEADER_BYTES + pieceBytes + 2 + history.length * 8];
+
+        out[0] = VERSION;
+        int flags = game.getCastlingRights() << CASTLING_SHIFT;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) flags |= BLACK_TO_MOVE;
+        if (game.isGameOver()) flags |= GAME_OVER;
+        out[1] = (byte) flags;
+        out[2] = (byte) (game.getEnPassantSquare() + 1);
+        putShort(out, 3, Math.min(game.getHalfmoveClock(), 0xFFFF));
+        putShort(out, 5, Math.min(game.getFullmoveNumber(), 0xFFFF));
+        putLong(out, 7, occupied);
+
+        int nibble = 0;
+        for (long bits = occupied; bits != 0; bits &= bits - 1, nibble++) {
+            int index = board.pieceIndexAt(Long.numberOfTrailingZeros(bits));
+            out[HEADER_BYTES + nibble / 2] |= (byte) (index << (nibble & 1) * 4);
+        }
+
+        int offset = HEADER_BYTES + pieceBytes;
+        putShort(out, offset, history.length);
+        offset += 2;
+        for (long key : history) {
+            putLong(out, offset, key);
+            offset += 8;
+        }
+        return out;
+    }
+
+    /**
+     * @param bytes an encoding produced by {@link #encode}
+     * @return a new game in the encoded state, with no moves to take back
+     * @throws IllegalArgumentException if the bytes are not a supported encoding
+     */
+    public static ChessGame decode(byte[] bytes) {
+        require(bytes, V1_HEADER_BYTES);
+        int version = bytes[0];
+        if (version != VERSION && version != 1) {
+            throw new IllegalArgumentException("Unsupported game encoding version: " + version);
+        }
+        int header = version == 1 ? V1_HEADER_BYTES : HEADER_BYTES;
+        require(bytes, header);
+        int flags = bytes[1] & 0xFF;
+        int enPassantSquare = (bytes[2] & 0xFF) - 1;
+        if (enPassantSquare >= ChessBoard.NUM_SQUARES) {
+            throw new IllegalArgumentException("Bad en passant square in game encoding: " + enPassantSquare);
+        }
+        int halfmoveClock = getShort(bytes, 3);
+        int fullmoveNumber = version == 1 ? 1 : getShort(bytes, 5);
+        long occupied = getLong(bytes, header - 8);
+        int pieceBytes = (Long.bitCount(occupied) + 1) / 2;
+        require(bytes, header + pieceBytes + 2);
+
+        ChessBoard board = new ChessBoard();
+        int nibble = 0;
+        for (long bits = occupied; bits != 0; bits &= bits - 1, nibble++) {
+            int index = bytes[header + nibble / 2] >> (nibble & 1) * 4 & 0xF;
+            if (index >= ChessBoard.NUM_PIECE_INDICES) {
+                throw new IllegalArgumentException("Bad piece in game encoding: " + index);
+            }
+            board.setPiece(Long.numberOfTrailingZeros(bits), index);
+        }
+
+        int offset = header + pieceBytes;
+        long[] history = new long[getShort(bytes, offset)];
+        offset += 2;
+        require(bytes, offset + history.length * 8);
+        for (int i = 0; i < history.length; i++, offset += 8) {
+            history[i] = getLong(bytes, offset);
+        }
+
+        ChessGame game = new ChessGame(board,
+                (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE,
+                flags >>> CASTLING_SHIFT, enPassantSquare, halfmoveClock, fullmoveNumber,
+                (flags & GAME_OVER) != 0);
+        game.restoreHistory(history);
+        return game;
+    }
+
+    private static void require(byte[] bytes, int length) {
+        if (bytes.length < length) {
+            throw new IllegalArgumentException("Game encoding is truncated: " + bytes.length + " bytes");
+        }
+    }
+
+    private static void putShort(byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 8);
+        out[offset + 1] = (byte) value;
+    }
+
+    private static int getShort(byte[] in, int offset) {
+        return (in[offset] & 0xFF) << 8 | in[offset + 1] & 0xFF;
+    }
+
+    private static void putLong(byte[] out, int offset, long value) {
+        for (int i = 7; i >= 0; i--, value >>>= 8) {
+            out[offset + i] = (byte) value;
+        }
+    }
+
+    private static long getLong(byte[] in, int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | in[offset + i] & 0xFF;
+        }
+        return value;
+    }
+}
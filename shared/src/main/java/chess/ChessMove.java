@@ -1,14 +1,25 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Objects;
 
 /**
  * Represents moving a chess piece on a chessboard
  * <p>
+ * Moves are immutable. {@link #of} returns a shared instance for every move
+ * between two board squares, created the first time that move is asked for.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessMoveAdapter.class)
 public class ChessMove {
+    private static final int PROMOTION_SLOTS = ChessPiece.PieceType.values().length + 1;
+    // Filled lazily; a racing thread at worst builds an equal instance, which is
+    // harmless because every field is final.
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTION_SLOTS];
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -19,6 +30,36 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * @return the shared instance for a move between two board squares, or a
+     * new one if either position is off the board
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        // an off-board row or column can flatten onto a real square index, so
+        // check the positions themselves rather than the indices
+        if (!startPosition.isOnBoard() || !endPosition.isOnBoard()) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(ChessBoard.squareIndex(startPosition), ChessBoard.squareIndex(endPosition),
+                promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+    }
+
+    /**
+     * @param promotion promotion piece type ordinal + 1, or 0 for no promotion
+     * @return the shared instance for a move given as square indices
+     */
+    static ChessMove of(int start, int end, int promotion) {
+        int slot = (start * 64 + end) * PROMOTION_SLOTS + promotion;
+        ChessMove move = MOVES[slot];
+        if (move == null) {
+            move = new ChessMove(ChessPosition.ofSquare(start), ChessPosition.ofSquare(end),
+                    promotion == 0 ? null : TYPES[promotion - 1]);
+            MOVES[slot] = move;
+        }
+        return move;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -49,6 +90,9 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -58,6 +102,7 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int promotion = promotionPiece == null ? 0 : promotionPiece.ordinal() + 1;
+        return (Objects.hashCode(startPosition) * 31 + Objects.hashCode(endPosition)) * PROMOTION_SLOTS + promotion;
     }
 }
@@ -1,18 +1,32 @@
 package chess;
 
 import chess.MoveCalculators.*;
+import com.google.gson.annotations.JsonAdapter;
 
 import java.util.Collection;
-import java.util.Objects;
 
 
 /**
  * Represents a single chess piece
  * <p>
+ * Pieces are immutable. {@link #of} hands out one shared instance for each of the
+ * twelve colored piece types.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPieceAdapter.class)
 public class ChessPiece {
+    private static final ChessPiece[][] PIECES =
+            new ChessPiece[ChessGame.TeamColor.values().length][PieceType.values().length];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
 
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
@@ -22,6 +36,13 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * @return the shared instance for a colored piece type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -68,8 +89,27 @@ public class ChessPiece {
     }
 
 
+    /**
+     * @return single-letter symbol for this piece, upper case for white and
+     * lower case for black
+     */
+    public char toChar() {
+        char symbol = switch (type) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return pieceColor == ChessGame.TeamColor.WHITE ? Character.toUpperCase(symbol) : symbol;
+    }
+
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -79,6 +119,6 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return pieceColor.ordinal() * 6 + type.ordinal();
     }
 }
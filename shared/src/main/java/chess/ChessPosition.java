@@ -1,14 +1,25 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * Represents a single square position on a chess board
  * <p>
+ * Positions are immutable. {@link #of} hands out one shared instance per board
+ * square, so comparing canonical positions is usually an identity check.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPositionAdapter.class)
 public class ChessPosition {
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
 
     private final int row;
     private final int col;
@@ -18,6 +29,31 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * @return the shared instance for a position; coordinates off the board get
+     * a fresh, non-canonical instance
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @return the shared instance for a square index, 0 (a1) through 63 (h8)
+     */
+    public static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return True if the row and column are both 1 through 8
+     */
+    public boolean isOnBoard() {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -41,6 +77,9 @@ public class ChessPosition {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -50,6 +89,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
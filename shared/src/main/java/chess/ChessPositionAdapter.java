@@ -0,0 +1,63 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter for {@link ChessPosition} that reads and writes the original
+ * {@code {"row": ..., "col": ...}} form without reflection and resolves every
+ * position it reads to the shared {@link ChessPosition#of} instance.
+ */
+public class ChessPositionAdapter extends TypeAdapter<ChessPosition> {
+
+    @Override
+    public void write(JsonWriter out, ChessPosition position) throws IOException {
+        if (position == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("row").value(position.getRow());
+        out.name("col").value(position.getColumn());
+        out.endObject();
+    }
+
+    @Override
+    public ChessPosition read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int row = -1;
+        int col = -1;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "row" -> row = in.nextInt();
+                case "col" -> col = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return ChessPosition.of(require("row", row), require("col", col));
+    }
+
+    /**
+     * @return the coordinate, if it was present and on the board
+     * @throws JsonParseException otherwise
+     */
+    private static int require(String name, int value) {
+        if (value == -1) {
+            throw new JsonParseException("ChessPosition is missing its " + name);
+        }
+        if (value < 1 || value > 8) {
+            throw new JsonParseException("ChessPosition " + name + " is off the board: " + value);
+        }
+        return value;
+    }
+}
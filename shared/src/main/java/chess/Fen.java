@@ -0,0 +1,170 @@
+package chess;
+
+import chess.MoveCalculators.AttackTables;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: piece placement,
+ * side to move, castling rights, en passant square, halfmove clock and
+ * fullmove number, separated by spaces. The parser walks the text once, a
+ * character at a time, without splitting it or building intermediate strings;
+ * the only objects it creates are the board and game it returns.
+ */
+final class Fen {
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+
+    private Fen() {
+    }
+
+    static ChessGame parse(CharSequence fen) {
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        ChessBoard board = new ChessBoard();
+        int row = 7;
+        int col = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 8 || row == 0) throw error(fen, i, "rank does not have eight squares");
+                row--;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 8) throw error(fen, i, "rank has more than eight squares");
+            } else {
+                int pieceIndex = PIECE_LETTERS.indexOf(c);
+                if (pieceIndex < 0) throw error(fen, i, "unknown piece '" + c + "'");
+                if (col == 8) throw error(fen, i, "rank has more than eight squares");
+                board.setPiece(row * 8 + col++, pieceIndex);
+            }
+        }
+        if (row != 0 || col != 8) throw error(fen, i, "board does not have eight full ranks");
+
+        i = skipSpaces(fen, i);
+        if (i >= length) throw error(fen, i, "side to move is missing");
+        ChessGame.TeamColor turn = switch (fen.charAt(i++)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw error(fen, i - 1, "side to move must be 'w' or 'b'");
+        };
+        i = endOfField(fen, i);
+
+        int castlingRights = CastlingRights.NONE;
+        i = skipSpaces(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i = endOfField(fen, i + 1);
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                castlingRights |= switch (fen.charAt(i)) {
+                    case 'K' -> CastlingRights.WHITE_KINGSIDE;
+                    case 'Q' -> CastlingRights.WHITE_QUEENSIDE;
+                    case 'k' -> CastlingRights.BLACK_KINGSIDE;
+                    case 'q' -> CastlingRights.BLACK_QUEENSIDE;
+                    default -> throw error(fen, i, "castling rights must be '-' or letters from KQkq");
+                };
+            }
+        }
+        castlingRights &= CastlingRights.fromBoard(board);
+
+        int enPassantSquare = ChessBoard.EMPTY;
+        i = skipSpaces(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i = endOfField(fen, i + 1);
+        } else if (i < length) {
+            int file = fen.charAt(i) - 'a';
+            int rank = i + 1 < length ? fen.charAt(i + 1) - '1' : -1;
+            int expectedRank = turn == ChessGame.TeamColor.WHITE ? 5 : 2;
+            if (file < 0 || file > 7 || rank != expectedRank) {
+                throw error(fen, i, "en passant square must be '-' or a square on rank " + (expectedRank + 1));
+            }
+            i = endOfField(fen, i + 2);
+            int square = rank * 8 + file;
+            // kept only when a pawn can take there, as after a move
+            if ((AttackTables.pawnAttacks(turn.opponent(), square)
+                    & board.getBitboard(turn, ChessPiece.PieceType.PAWN)) != 0) {
+                enPassantSquare = square;
+            }
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            for (halfmoveClock = 0; i < length && fen.charAt(i) != ' '; i++) {
+                halfmoveClock = digit(fen, i, halfmoveClock, "halfmove clock");
+            }
+            i = skipSpaces(fen, i);
+            if (i < length) {
+                int start = i;
+                for (fullmoveNumber = 0; i < length && fen.charAt(i) != ' '; i++) {
+                    fullmoveNumber = digit(fen, i, fullmoveNumber, "fullmove number");
+                }
+                if (fullmoveNumber == 0) throw error(fen, start, "fullmove number must be at least 1");
+            }
+            i = skipSpaces(fen, i);
+            if (i < length) throw error(fen, i, "unexpected text after the last field");
+        }
+
+        return new ChessGame(board, turn, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber, false);
+    }
+
+    static String format(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int pieceIndex = board.pieceIndexAt(row * 8 + col);
+                if (pieceIndex == ChessBoard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(PIECE_LETTERS.charAt(pieceIndex));
+            }
+            if (empty > 0) fen.append((char) ('0' + empty));
+            if (row > 0) fen.append('/');
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = game.getCastlingRights();
+        if (rights == CastlingRights.NONE) fen.append('-');
+        if ((rights & CastlingRights.WHITE_KINGSIDE) != 0) fen.append('K');
+        if ((rights & CastlingRights.WHITE_QUEENSIDE) != 0) fen.append('Q');
+        if ((rights & CastlingRights.BLACK_KINGSIDE) != 0) fen.append('k');
+        if ((rights & CastlingRights.BLACK_QUEENSIDE) != 0) fen.append('q');
+
+        fen.append(' ');
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant == ChessBoard.EMPTY) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+        }
+        return fen.append(' ').append(game.getHalfmoveClock())
+                .append(' ').append(game.getFullmoveNumber()).toString();
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static int endOfField(CharSequence fen, int i) {
+        if (i < fen.length() && fen.charAt(i) != ' ') throw error(fen, i, "field has extra characters");
+        return i;
+    }
+
+    private static int digit(CharSequence fen, int i, int value, String field) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9' || value > 99999) throw error(fen, i, field + " must be a number");
+        return value * 10 + (c - '0');
+    }
+
+    private static IllegalArgumentException error(CharSequence fen, int index, String problem) {
+        return new IllegalArgumentException("Bad FEN at character " + index + ": " + problem + " in \"" + fen + "\"");
+    }
+}
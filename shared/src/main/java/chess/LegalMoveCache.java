@@ -0,0 +1,158 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+/**
+ * The legal moves of the side to move in one position, grouped by start
+ * square. {@link ChessGame} fills it the first time a position's moves are
+ * asked for and answers later questions about the same position from it, until
+ * a move is made or the board is replaced. The position key it was filled for
+ * is kept too, so a board edited directly through {@link ChessGame#getBoard()}
+ * is never answered from stale moves.
+ */
+class LegalMoveCache {
+    private final MoveList generated = new MoveList();
+    private int[] bySquare = new int[MoveList.DEFAULT_CAPACITY];
+    private final int[] squareStart = new int[ChessBoard.NUM_SQUARES + 1];
+    private final Collection<?>[] views = new Collection<?>[ChessBoard.NUM_SQUARES];
+
+    private boolean valid;
+    private long key;
+    private long hits;
+    private long misses;
+
+    /**
+     * Looks the position up, counting a hit or a miss
+     *
+     * @return True if the cache holds the moves for the position with this key
+     */
+    boolean lookup(long positionKey) {
+        if (valid && key == positionKey) {
+            hits++;
+            return true;
+        }
+        misses++;
+        return false;
+    }
+
+    /**
+     * Looks the position up for a query that can answer itself without the
+     * cache, counting only a hit
+     *
+     * @return True if the cache holds the moves for the position with this key
+     */
+    boolean reuse(long positionKey) {
+        if (valid && key == positionKey) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return an empty list for the caller to generate the position's moves into,
+     * before calling {@link #index}
+     */
+    MoveList buffer() {
+        generated.clear();
+        return generated;
+    }
+
+    /**
+     * Groups the moves generated into {@link #buffer()} by start square
+     */
+    void index(long positionKey) {
+        int size = generated.size();
+        if (bySquare.length < size) {
+            bySquare = new int[Math.max(size, bySquare.length * 2)];
+        }
+        Arrays.fill(squareStart, 0);
+        for (int i = 0; i < size; i++) {
+            squareStart[PackedMove.from(generated.get(i)) + 1]++;
+        }
+        for (int square = 0; square < ChessBoard.NUM_SQUARES; square++) {
+            squareStart[square + 1] += squareStart[square];
+        }
+        // counting sort; squareStart[from] is advanced as moves are placed and
+        // shifted back afterward
+        for (int i = 0; i < size; i++) {
+            int move = generated.get(i);
+            bySquare[squareStart[PackedMove.from(move)]++] = move;
+        }
+        System.arraycopy(squareStart, 0, squareStart, 1, ChessBoard.NUM_SQUARES);
+        squareStart[0] = 0;
+
+        Arrays.fill(views, null);
+        key = positionKey;
+        valid = true;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    boolean isEmpty() {
+        return generated.isEmpty();
+    }
+
+    /**
+     * Appends the cached moves starting on {@code square}
+     */
+    void copyMoves(int square, MoveList moves) {
+        for (int i = squareStart[square]; i < squareStart[square + 1]; i++) {
+            moves.add(bySquare[i]);
+        }
+    }
+
+    /**
+     * Appends every cached move
+     */
+    void copyMoves(MoveList moves) {
+        for (int i = 0; i < generated.size(); i++) {
+            moves.add(bySquare[i]);
+        }
+    }
+
+    /**
+     * @return True if a cached move from the move's start square matches it, ignoring flags
+     */
+    boolean contains(int move) {
+        int wanted = move & PackedMove.MOVE_MASK;
+        int square = PackedMove.from(move);
+        for (int i = squareStart[square]; i < squareStart[square + 1]; i++) {
+            if ((bySquare[i] & PackedMove.MOVE_MASK) == wanted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the moves starting on {@code square} as a read-only set, built
+     * once per position and then shared
+     */
+    @SuppressWarnings("unchecked")
+    Collection<ChessMove> view(int square) {
+        Collection<ChessMove> view = (Collection<ChessMove>) views[square];
+        if (view == null) {
+            HashSet<ChessMove> set = new HashSet<>();
+            for (int i = squareStart[square]; i < squareStart[square + 1]; i++) {
+                set.add(PackedMove.toChessMove(bySquare[i]));
+            }
+            view = Collections.unmodifiableSet(set);
+            views[square] = view;
+        }
+        return view;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+}
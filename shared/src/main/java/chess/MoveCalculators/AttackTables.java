@@ -0,0 +1,124 @@
+package chess.MoveCalculators;
+
+import chess.ChessGame;
+
+/**
+ * Per-square attack bitboards for the pieces whose reach never depends on
+ * blockers (knights, kings and pawn captures), plus the between/line masks
+ * used for pins and check evasions. The tables are built once when the class
+ * loads; afterward each lookup is a single array read.
+ * <p>
+ * Squares are indexed 0 (a1) through 63 (h8), matching {@link chess.ChessBoard}.
+ */
+public final class AttackTables {
+    public static final long RANK_1 = 0x00000000000000FFL;
+    public static final long RANK_3 = 0x0000000000FF0000L;
+    public static final long RANK_6 = 0x0000FF0000000000L;
+    public static final long RANK_8 = 0xFF00000000000000L;
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {
+                {-2, 1}, {-1, 2}, {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}
+        };
+        int[][] kingSteps = {
+                {-1, 1}, {1, 1}, {1, -1}, {-1, -1},
+                {0, 1}, {1, 0}, {0, -1}, {-1, 0}
+        };
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = stepTargets(square, knightSteps);
+            KING[square] = stepTargets(square, kingSteps);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = stepTargets(square, new int[][] {{-1, 1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = stepTargets(square, new int[][] {{-1, -1}, {1, -1}});
+            for (int[] step : kingSteps) {
+                initRay(square, step[0], step[1]);
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    private static void initRay(int square, int dx, int dy) {
+        long line = (1L << square) | ray(square, dx, dy) | ray(square, -dx, -dy);
+        long between = 0L;
+        int x = (square & 7) + dx;
+        int y = (square >>> 3) + dy;
+        while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+            int target = y * 8 + x;
+            BETWEEN[square][target] = between;
+            LINE[square][target] = line;
+            between |= 1L << target;
+            x += dx;
+            y += dy;
+        }
+    }
+
+    private static long ray(int square, int dx, int dy) {
+        long ray = 0L;
+        int x = (square & 7) + dx;
+        int y = (square >>> 3) + dy;
+        while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+            ray |= 1L << (y * 8 + x);
+            x += dx;
+            y += dy;
+        }
+        return ray;
+    }
+
+    private static long stepTargets(int square, int[][] steps) {
+        int col = square & 7;
+        int row = square >>> 3;
+        long targets = 0L;
+        for (int[] step : steps) {
+            int x = col + step[0];
+            int y = row + step[1];
+            if (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                targets |= 1L << (y * 8 + x);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * @return squares a knight on {@code square} attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return squares a king on {@code square} attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return squares a pawn of the given color on {@code square} attacks diagonally
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return squares strictly between two squares that share a rank, file or
+     * diagonal; 0 if they don't line up or are adjacent
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the whole rank, file or diagonal through two squares, edge to edge;
+     * 0 if they don't line up
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+}
@@ -0,0 +1,400 @@
+package chess.MoveCalculators;
+
+import chess.CastlingRights;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Legal move generation that never plays a move to see whether it is legal.
+ * <p>
+ * Once per call the generator finds the pieces checking the mover's king, the
+ * squares a non-king move must land on to answer that check (the checker
+ * itself or a square between it and the king), and the mover's pieces pinned
+ * to the king. Each piece is then generated with a target mask that already
+ * excludes every illegal end square: a pinned piece may only slide along its
+ * pin line, nothing but the king moves in double check, and the king only
+ * steps to squares the enemy does not attack once the king itself is lifted
+ * off the board (so it can't retreat along a checking ray).
+ * <p>
+ * Castling and en passant depend on game state the board doesn't hold, so the
+ * caller passes the {@link CastlingRights} bits and the en passant target
+ * square (or {@link ChessBoard#EMPTY}); the shorter overloads assume neither.
+ */
+public final class LegalMoveGenerator {
+
+    private LegalMoveGenerator() {
+    }
+
+    /**
+     * Appends every legal move of one team
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor team, MoveList moves) {
+        generateMoves(board, team, CastlingRights.NONE, ChessBoard.EMPTY, moves);
+    }
+
+    /**
+     * Appends every legal move of one team, castling and en passant included
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor team, int castlingRights,
+                                     int enPassantSquare, MoveList moves) {
+        generate(board, team, board.getOccupancy(team), castlingRights, enPassantSquare, moves);
+    }
+
+    /**
+     * Appends the legal moves of the piece on {@code square}, if there is one
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        generatePieceMoves(board, square, CastlingRights.NONE, ChessBoard.EMPTY, moves);
+    }
+
+    /**
+     * Appends the legal moves of the piece on {@code square}, castling and en
+     * passant included, if there is one
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, int castlingRights, int enPassantSquare,
+                                          MoveList moves) {
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex == ChessBoard.EMPTY) return;
+        generate(board, ChessBoard.pieceFor(pieceIndex).getTeamColor(), 1L << square, castlingRights,
+                enPassantSquare, moves);
+    }
+
+    /**
+     * Checks a single packed move: the piece on its start square must reach the
+     * end square (geometry and a clear path), pawns must name a promotion piece
+     * exactly when they reach the last rank, and the move must not leave the
+     * mover's king attacked. Nothing else is generated.
+     *
+     * @return True if the move is legal for whichever team owns the moving piece
+     */
+    public static boolean isLegal(ChessBoard board, int move) {
+        return isLegal(board, move, CastlingRights.NONE, ChessBoard.EMPTY);
+    }
+
+    /**
+     * Checks a single packed move as {@link #isLegal(ChessBoard, int)} does,
+     * also accepting castling (the king moving two files) and en passant when
+     * the game state allows them
+     */
+    public static boolean isLegal(ChessBoard board, int move, int castlingRights, int enPassantSquare) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int pieceIndex = board.pieceIndexAt(from);
+        if (pieceIndex == ChessBoard.EMPTY) return false;
+        ChessPiece piece = ChessBoard.pieceFor(pieceIndex);
+        ChessGame.TeamColor team = piece.getTeamColor();
+        ChessPiece.PieceType type = piece.getPieceType();
+        long toBit = 1L << to;
+        int kingSquare = board.getKingSquare(team);
+        ChessGame.TeamColor enemy = team.opponent();
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            return PackedMove.promotion(move) == 0 && from == kingSquare
+                    && !isSquareAttacked(board, kingSquare, enemy, board.getOccupied())
+                    && canCastle(board, team, castlingRights, to > from);
+        }
+        if (type == ChessPiece.PieceType.PAWN && to == enPassantSquare
+                && (AttackTables.pawnAttacks(team, from) & toBit) != 0) {
+            return PackedMove.promotion(move) == 0
+                    && (kingSquare == ChessBoard.EMPTY || enPassantIsSafe(board, team, from, to));
+        }
+        if ((MoveGenerator.pieceTargets(board, from, type, team) & toBit) == 0) return false;
+        ChessPiece.PieceType promotion = PackedMove.promotionType(move);
+        boolean promotes = type == ChessPiece.PieceType.PAWN
+                && (toBit & (AttackTables.RANK_1 | AttackTables.RANK_8)) != 0;
+        if (promotes ? promotion == null || promotion == ChessPiece.PieceType.KING
+                || promotion == ChessPiece.PieceType.PAWN : promotion != null) {
+            return false;
+        }
+
+        if (kingSquare == ChessBoard.EMPTY) return true;
+        if (from == kingSquare) {
+            return !isSquareAttacked(board, to, enemy, board.getOccupied() & ~(1L << from));
+        }
+
+        long checkers = attackersTo(board, kingSquare, enemy, board.getOccupied());
+        if (checkers != 0) {
+            if (Long.bitCount(checkers) > 1) return false;
+            long checkMask = checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            if ((checkMask & toBit) == 0) return false;
+        }
+        return (pinnedPieces(board, kingSquare, team) & (1L << from)) == 0
+                || (AttackTables.line(kingSquare, from) & toBit) != 0;
+    }
+
+    /**
+     * Decides whether a team has any legal move without listing them. The
+     * cheapest candidates go first: king steps, then capturing a lone checker,
+     * then each other piece's target squares against the pin and check masks.
+     * Returns at the first move found.
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor team) {
+        return hasLegalMove(board, team, ChessBoard.EMPTY);
+    }
+
+    /**
+     * As {@link #hasLegalMove(ChessBoard, ChessGame.TeamColor)}, also counting an
+     * en passant capture, which can be a team's only move. Castling never can be:
+     * it needs the king out of check with a safe, empty square beside it, and the
+     * king could simply step there.
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor team, int enPassantSquare) {
+        long movers = board.getOccupancy(team);
+        int kingSquare = board.getKingSquare(team);
+        if (kingSquare == ChessBoard.EMPTY) {
+            return anyTargets(board, team, movers, -1L, 0L, kingSquare)
+                    || (enPassantSquare != ChessBoard.EMPTY && enPassantCapturers(board, team, enPassantSquare) != 0);
+        }
+
+        ChessGame.TeamColor enemy = team.opponent();
+        long occupied = board.getOccupied();
+        long kingBit = 1L << kingSquare;
+        long occupiedWithoutKing = occupied & ~kingBit;
+        for (long targets = AttackTables.kingAttacks(kingSquare) & ~movers; targets != 0; targets &= targets - 1) {
+            if (!isSquareAttacked(board, Long.numberOfTrailingZeros(targets), enemy, occupiedWithoutKing)) {
+                return true;
+            }
+        }
+
+        long checkers = attackersTo(board, kingSquare, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) return false;
+        if (enPassantSquare != ChessBoard.EMPTY) {
+            for (long pawns = enPassantCapturers(board, team, enPassantSquare); pawns != 0; pawns &= pawns - 1) {
+                if (enPassantIsSafe(board, team, Long.numberOfTrailingZeros(pawns), enPassantSquare)) return true;
+            }
+        }
+        movers &= ~kingBit;
+        // a pinned piece can never capture or block a checker, so only unpinned pieces answer a check
+        long pinned = pinnedPieces(board, kingSquare, team);
+        long checkMask = -1L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            if ((attackersTo(board, checker, team, occupied) & movers & ~pinned) != 0) return true;
+            checkMask = AttackTables.between(kingSquare, checker);
+            if (checkMask == 0) return false;
+            movers &= ~pinned;
+        }
+        return anyTargets(board, team, movers, checkMask, pinned, kingSquare);
+    }
+
+    private static boolean anyTargets(ChessBoard board, ChessGame.TeamColor team, long movers, long checkMask,
+                                      long pinned, int kingSquare) {
+        for (; movers != 0; movers &= movers - 1) {
+            int square = Long.numberOfTrailingZeros(movers);
+            long targetMask = checkMask;
+            if ((pinned & (1L << square)) != 0) {
+                targetMask &= AttackTables.line(kingSquare, square);
+            }
+            ChessPiece.PieceType type = ChessBoard.pieceFor(board.pieceIndexAt(square)).getPieceType();
+            if ((MoveGenerator.pieceTargets(board, square, type, team) & targetMask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param square   square index, 0 (a1) through 63 (h8)
+     * @param byColor  team whose pieces are attacking
+     * @param occupied occupancy to trace sliding rays through
+     * @return bitboard of the {@code byColor} pieces attacking {@code square}
+     */
+    public static long attackersTo(ChessBoard board, int square, ChessGame.TeamColor byColor, long occupied) {
+        long queens = board.getBitboard(byColor, ChessPiece.PieceType.QUEEN);
+        return (AttackTables.knightAttacks(square) & board.getBitboard(byColor, ChessPiece.PieceType.KNIGHT))
+                | (AttackTables.kingAttacks(square) & board.getBitboard(byColor, ChessPiece.PieceType.KING))
+                // a pawn attacks this square exactly when a pawn of the other color here would attack the pawn
+                | (AttackTables.pawnAttacks(byColor.opponent(), square)
+                        & board.getBitboard(byColor, ChessPiece.PieceType.PAWN))
+                | (SlidingAttacks.rookAttacks(square, occupied)
+                        & (queens | board.getBitboard(byColor, ChessPiece.PieceType.ROOK)))
+                | (SlidingAttacks.bishopAttacks(square, occupied)
+                        & (queens | board.getBitboard(byColor, ChessPiece.PieceType.BISHOP)));
+    }
+
+    /**
+     * Probes outward from {@code square} (knight jumps, pawn diagonals, the king
+     * ring, then sliding rays up to the first blocker) and stops at the first
+     * attacker found.
+     *
+     * @param square   square index, 0 (a1) through 63 (h8)
+     * @param byColor  team whose pieces are attacking
+     * @param occupied occupancy to trace sliding rays through
+     * @return True if any {@code byColor} piece attacks {@code square}
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor byColor, long occupied) {
+        if ((AttackTables.knightAttacks(square) & board.getBitboard(byColor, ChessPiece.PieceType.KNIGHT)) != 0
+                || (AttackTables.pawnAttacks(byColor.opponent(), square)
+                        & board.getBitboard(byColor, ChessPiece.PieceType.PAWN)) != 0
+                || (AttackTables.kingAttacks(square) & board.getBitboard(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = board.getBitboard(byColor, ChessPiece.PieceType.QUEEN);
+        long rooks = queens | board.getBitboard(byColor, ChessPiece.PieceType.ROOK);
+        if (rooks != 0 && (SlidingAttacks.rookAttacks(square, occupied) & rooks) != 0) {
+            return true;
+        }
+        long bishops = queens | board.getBitboard(byColor, ChessPiece.PieceType.BISHOP);
+        return bishops != 0 && (SlidingAttacks.bishopAttacks(square, occupied) & bishops) != 0;
+    }
+
+    private static void generate(ChessBoard board, ChessGame.TeamColor team, long movers, int castlingRights,
+                                 int enPassantSquare, MoveList moves) {
+        long enPassantPawns = enPassantSquare == ChessBoard.EMPTY
+                ? 0L : enPassantCapturers(board, team, enPassantSquare) & movers;
+        int kingSquare = board.getKingSquare(team);
+        if (kingSquare == ChessBoard.EMPTY) {
+            // a board built by hand without a king has nothing to keep safe
+            for (; movers != 0; movers &= movers - 1) {
+                MoveGenerator.generatePieceMoves(board, Long.numberOfTrailingZeros(movers), moves);
+            }
+            addEnPassant(enPassantPawns, enPassantSquare, moves);
+            return;
+        }
+
+        ChessGame.TeamColor enemy = team.opponent();
+        long kingBit = 1L << kingSquare;
+        long checkers = attackersTo(board, kingSquare, enemy, board.getOccupied());
+        if ((movers & kingBit) != 0) {
+            generateKingMoves(board, kingSquare, team, moves);
+            if (checkers == 0) {
+                if (canCastle(board, team, castlingRights, true)) {
+                    moves.add(PackedMove.encode(kingSquare, kingSquare + 2, 0, PackedMove.CASTLE));
+                }
+                if (canCastle(board, team, castlingRights, false)) {
+                    moves.add(PackedMove.encode(kingSquare, kingSquare - 2, 0, PackedMove.CASTLE));
+                }
+            }
+            movers &= ~kingBit;
+        }
+        if (movers == 0 || Long.bitCount(checkers) > 1) return;
+
+        for (long pawns = enPassantPawns; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            if (!enPassantIsSafe(board, team, from, enPassantSquare)) {
+                enPassantPawns &= ~(1L << from);
+            }
+        }
+        addEnPassant(enPassantPawns, enPassantSquare, moves);
+
+        long checkMask = checkers == 0
+                ? -1L
+                : checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        long pinned = pinnedPieces(board, kingSquare, team);
+        for (; movers != 0; movers &= movers - 1) {
+            int square = Long.numberOfTrailingZeros(movers);
+            long targetMask = checkMask;
+            if ((pinned & (1L << square)) != 0) {
+                targetMask &= AttackTables.line(kingSquare, square);
+            }
+            if (targetMask == 0) continue;
+            ChessPiece piece = ChessBoard.pieceFor(board.pieceIndexAt(square));
+            MoveGenerator.generatePieceMoves(board, square, piece.getPieceType(), team, targetMask, moves);
+        }
+    }
+
+    private static void generateKingMoves(ChessBoard board, int kingSquare, ChessGame.TeamColor team,
+                                          MoveList moves) {
+        ChessGame.TeamColor enemy = team.opponent();
+        long occupiedWithoutKing = board.getOccupied() & ~(1L << kingSquare);
+        long enemies = board.getOccupancy(enemy);
+        long targets = AttackTables.kingAttacks(kingSquare) & ~board.getOccupancy(team);
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (!isSquareAttacked(board, to, enemy, occupiedWithoutKing)) {
+                int flags = (enemies & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.NONE;
+                moves.add(PackedMove.encode(kingSquare, to, 0, flags));
+            }
+        }
+    }
+
+    private static void addEnPassant(long pawns, int enPassantSquare, MoveList moves) {
+        for (; pawns != 0; pawns &= pawns - 1) {
+            moves.add(PackedMove.encode(Long.numberOfTrailingZeros(pawns), enPassantSquare, 0,
+                    PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+        }
+    }
+
+    /**
+     * @return the team's pawns diagonally behind the en passant square, which
+     * could capture onto it
+     */
+    private static long enPassantCapturers(ChessBoard board, ChessGame.TeamColor team, int enPassantSquare) {
+        return AttackTables.pawnAttacks(team.opponent(), enPassantSquare)
+                & board.getBitboard(team, ChessPiece.PieceType.PAWN);
+    }
+
+    /**
+     * En passant empties two squares on one rank at once, which the pin mask
+     * can't describe, so the king is tested against the resulting occupancy
+     * directly. Knights and the enemy king can't be affected by the capture, and
+     * the captured pawn no longer gives check.
+     */
+    private static boolean enPassantIsSafe(ChessBoard board, ChessGame.TeamColor team, int from,
+                                           int enPassantSquare) {
+        ChessGame.TeamColor enemy = team.opponent();
+        int kingSquare = board.getKingSquare(team);
+        int captured = enPassantSquare + (team == ChessGame.TeamColor.WHITE ? -8 : 8);
+        long occupied = (board.getOccupied() & ~(1L << from) & ~(1L << captured)) | (1L << enPassantSquare);
+        long queens = board.getBitboard(enemy, ChessPiece.PieceType.QUEEN);
+        return (SlidingAttacks.rookAttacks(kingSquare, occupied)
+                        & (queens | board.getBitboard(enemy, ChessPiece.PieceType.ROOK))) == 0
+                && (SlidingAttacks.bishopAttacks(kingSquare, occupied)
+                        & (queens | board.getBitboard(enemy, ChessPiece.PieceType.BISHOP))) == 0
+                && (AttackTables.knightAttacks(kingSquare) & board.getBitboard(enemy, ChessPiece.PieceType.KNIGHT)) == 0
+                && (AttackTables.pawnAttacks(team, kingSquare) & board.getBitboard(enemy, ChessPiece.PieceType.PAWN)
+                        & ~(1L << captured)) == 0;
+    }
+
+    /**
+     * Checks everything about castling except that the king isn't in check now:
+     * the right is still held, king and rook stand on their home squares, the
+     * squares between them are empty, and the king neither passes through nor
+     * lands on an attacked square.
+     */
+    private static boolean canCastle(ChessBoard board, ChessGame.TeamColor team, int castlingRights,
+                                     boolean kingside) {
+        boolean white = team == ChessGame.TeamColor.WHITE;
+        int home = white ? CastlingRights.WHITE_KING_SQUARE : CastlingRights.BLACK_KING_SQUARE;
+        int right = kingside
+                ? (white ? CastlingRights.WHITE_KINGSIDE : CastlingRights.BLACK_KINGSIDE)
+                : (white ? CastlingRights.WHITE_QUEENSIDE : CastlingRights.BLACK_QUEENSIDE);
+        if ((castlingRights & right) == 0 || board.getKingSquare(team) != home) return false;
+
+        int rookSquare = kingside ? home + 3 : home - 4;
+        int step = kingside ? 1 : -1;
+        long occupied = board.getOccupied();
+        ChessGame.TeamColor enemy = team.opponent();
+        return board.pieceIndexAt(rookSquare) == ChessBoard.pieceIndex(team, ChessPiece.PieceType.ROOK)
+                && (AttackTables.between(home, rookSquare) & occupied) == 0
+                && !isSquareAttacked(board, home + step, enemy, occupied)
+                && !isSquareAttacked(board, home + 2 * step, enemy, occupied);
+    }
+
+    /**
+     * @return the team's pieces that are the only blocker between their king and
+     * an enemy slider on the same line
+     */
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor team) {
+        ChessGame.TeamColor enemy = team.opponent();
+        long occupied = board.getOccupied();
+        long own = board.getOccupancy(team);
+        long queens = board.getBitboard(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, 0L)
+                & (queens | board.getBitboard(enemy, ChessPiece.PieceType.ROOK)))
+                | (SlidingAttacks.bishopAttacks(kingSquare, 0L)
+                & (queens | board.getBitboard(enemy, ChessPiece.PieceType.BISHOP)));
+
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = AttackTables.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+}
@@ -1,56 +1,45 @@
 package chess.MoveCalculators;
 
 import chess.ChessBoard;
+import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
 
 import java.util.HashSet;
 
 public interface MoveCalculator {
-
-    static boolean isValidSquare(ChessPosition position) {
-        return position.getRow() >= 1 && position.getRow() <= 8 &&
-                position.getColumn() >= 1 && position.getColumn() <= 8;
+    /** Enough room for any single piece's moves (a queen has at most 27). */
+    int PIECE_CAPACITY = 32;
+
+    /**
+     * Packs a move from {@code from} to every square in {@code targets}, flagging
+     * captures. Targets come from {@link AttackTables} or {@link SlidingAttacks}
+     * with the mover's own pieces already masked out.
+     */
+    static void addMoves(ChessBoard board, int from, long targets, MoveList moves) {
+        long occupied = board.getOccupied();
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.NONE;
+            moves.add(PackedMove.encode(from, to, 0, flags));
+        }
     }
 
-    static HashSet<ChessMove> generateMoves(ChessBoard board, ChessPosition currPosition, int[][] directions, boolean repeat) {
-
-        HashSet<ChessMove> moves = new HashSet<>();
-
-        int currX = currPosition.getColumn();
-        int currY = currPosition.getRow();
-
-        ChessPiece currentPiece = board.getPiece(currPosition);
-        if (currentPiece == null) return moves; // no piece at start square
-
-        var team = currentPiece.getTeamColor();
-
-        for (int[] dir : directions) {
-            int step = 1;
-            while (true) {
-                ChessPosition target = new ChessPosition(currY + dir[1] * step, currX + dir[0] * step);
-
-                if (!isValidSquare(target)) break;
-
-                ChessPiece targetPiece = board.getPiece(target);
-
-                if (targetPiece == null) {
-                    // empty square → valid move
-                    moves.add(new ChessMove(currPosition, target, null));
-                } else {
-                    // occupied square
-                    if (targetPiece.getTeamColor() != team) {
-                        // capture opponent piece
-                        moves.add(new ChessMove(currPosition, target, null));
-                    }
-                    // always stop after hitting a piece
-                    break;
-                }
-                if (!repeat) break; // knights/kings only step once
-                step++;
-            }
-        }
-        return moves;
+    /**
+     * Adapter for the {@link ChessPiece#pieceMoves} collection API: generates the moves
+     * of a piece of the given type, colored like the piece on the square.
+     */
+    static HashSet<ChessMove> collectMoves(ChessBoard board, ChessPosition currPosition, ChessPiece.PieceType type) {
+        int square = ChessBoard.squareIndex(currPosition);
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex == ChessBoard.EMPTY) return new HashSet<>(); // no piece at start square
+
+        ChessGame.TeamColor team = ChessBoard.pieceFor(pieceIndex).getTeamColor();
+        MoveList moves = new MoveList(PIECE_CAPACITY);
+        MoveGenerator.generatePieceMoves(board, square, type, team, -1L, moves);
+        return moves.toChessMoves();
     }
 }
@@ -0,0 +1,66 @@
+package chess.MoveCalculators;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+
+/**
+ * Pseudo-legal move generation into a caller-supplied {@link MoveList}. Moves
+ * are appended as packed ints and nothing is allocated, so the same list can
+ * be reused for every position. Whether a move leaves the mover's king in
+ * check is left to {@link LegalMoveGenerator}.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the moves of every piece of one team
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor team, MoveList moves) {
+        for (long pieces = board.getOccupancy(team); pieces != 0; pieces &= pieces - 1) {
+            generatePieceMoves(board, Long.numberOfTrailingZeros(pieces), moves);
+        }
+    }
+
+    /**
+     * Appends the moves of the piece on {@code square}, if there is one
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex == ChessBoard.EMPTY) return;
+        ChessPiece piece = ChessBoard.pieceFor(pieceIndex);
+        generatePieceMoves(board, square, piece.getPieceType(), piece.getTeamColor(), -1L, moves);
+    }
+
+    /**
+     * Appends the moves of a piece whose end square lies in {@code targetMask}
+     */
+    static void generatePieceMoves(ChessBoard board, int square, ChessPiece.PieceType type,
+                                   ChessGame.TeamColor team, long targetMask, MoveList moves) {
+        switch (type) {
+            case BISHOP -> BishopMoveCalculator.generate(board, square, team, targetMask, moves);
+            case QUEEN -> QueenMoveCalculator.generate(board, square, team, targetMask, moves);
+            case KING -> KingMoveCalculator.generate(board, square, team, targetMask, moves);
+            case KNIGHT -> KnightMoveCalculator.generate(board, square, team, targetMask, moves);
+            case ROOK -> RookMoveCalculator.generate(board, square, team, targetMask, moves);
+            case PAWN -> PawnMoveCalculator.generate(board, square, team, targetMask, moves);
+        }
+    }
+
+    /**
+     * @return the end squares of every move of a piece, ignoring king safety
+     */
+    static long pieceTargets(ChessBoard board, int square, ChessPiece.PieceType type, ChessGame.TeamColor team) {
+        return switch (type) {
+            case BISHOP -> BishopMoveCalculator.targets(board, square, team);
+            case QUEEN -> QueenMoveCalculator.targets(board, square, team);
+            case KING -> KingMoveCalculator.targets(board, square, team);
+            case KNIGHT -> KnightMoveCalculator.targets(board, square, team);
+            case ROOK -> RookMoveCalculator.targets(board, square, team);
+            case PAWN -> PawnMoveCalculator.targets(board, square, team);
+        };
+    }
+}
@@ -5,61 +5,72 @@ import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
 import chess.ChessGame;
+import chess.MoveList;
+import chess.PackedMove;
 
 import java.util.*;
 
 public class PawnMoveCalculator implements MoveCalculator {
+    private static final int[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN.ordinal() + 1,
+            ChessPiece.PieceType.ROOK.ordinal() + 1,
+            ChessPiece.PieceType.BISHOP.ordinal() + 1,
+            ChessPiece.PieceType.KNIGHT.ordinal() + 1
+    };
+
     public static HashSet<ChessMove> getMoves(ChessBoard board, ChessPosition currPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        ChessPiece pawn = board.getPiece(currPosition);
-        if (pawn == null) return moves;
+        return MoveCalculator.collectMoves(board, currPosition, ChessPiece.PieceType.PAWN);
+    }
 
-        ChessGame.TeamColor team = pawn.getTeamColor();
-        int currX = currPosition.getColumn();
-        int currY = currPosition.getRow();
-        int forward = (team == ChessGame.TeamColor.WHITE) ? 1 : -1;
-        int promotionRank = (team == ChessGame.TeamColor.WHITE) ? 8 : 1;
-        int startRow = (team == ChessGame.TeamColor.WHITE) ? 2 : 7;
+    public static void generate(ChessBoard board, int square, ChessGame.TeamColor team, long targetMask,
+                                MoveList moves) {
+        long oneStep = pushes(board, square, team);
+        long twoStep = doublePushes(board, team, oneStep) & targetMask;
+        long captures = AttackTables.pawnAttacks(team, square) & board.getOccupancy(team.opponent());
 
-        List<ChessPiece.PieceType> promotionTypes = Arrays.asList(
-                ChessPiece.PieceType.QUEEN,
-                ChessPiece.PieceType.ROOK,
-                ChessPiece.PieceType.BISHOP,
-                ChessPiece.PieceType.KNIGHT);
+        addPawnMoves(square, oneStep & targetMask, PackedMove.NONE, moves);
+        addPawnMoves(square, captures & targetMask, PackedMove.CAPTURE, moves);
+        if (twoStep != 0) {
+            moves.add(PackedMove.encode(square, Long.numberOfTrailingZeros(twoStep), 0, PackedMove.DOUBLE_PUSH));
+        }
+    }
 
-        ChessPosition oneStep = new ChessPosition(currY + forward, currX);
-        if (MoveCalculator.isValidSquare(oneStep) && board.getPiece(oneStep) == null) {
-            if (oneStep.getRow() == promotionRank) {
-                for (ChessPiece.PieceType type : promotionTypes) {
-                    moves.add(new ChessMove(currPosition, oneStep, type));
-                }
-            } else {
-                moves.add(new ChessMove(currPosition, oneStep, null));
-                // Two-square move (only from start row, not promotion)
-                ChessPosition twoStep = new ChessPosition(currY + 2 * forward, currX);
-                if (currY == startRow && board.getPiece(twoStep) == null && board.getPiece(oneStep) == null) {
-                    moves.add(new ChessMove(currPosition, twoStep, null));
-                }
-            }
+    /**
+     * @return every square the pawn on {@code square} could move to, ignoring king safety
+     */
+    public static long targets(ChessBoard board, int square, ChessGame.TeamColor team) {
+        long oneStep = pushes(board, square, team);
+        return oneStep | doublePushes(board, team, oneStep)
+                | (AttackTables.pawnAttacks(team, square) & board.getOccupancy(team.opponent()));
+    }
+
+    private static long pushes(ChessBoard board, int square, ChessGame.TeamColor team) {
+        long pawn = 1L << square;
+        long step = team == ChessGame.TeamColor.WHITE ? pawn << 8 : pawn >>> 8;
+        return step & ~board.getOccupied();
+    }
+
+    /**
+     * Two-square move (only from start row, both squares empty)
+     */
+    private static long doublePushes(ChessBoard board, ChessGame.TeamColor team, long oneStep) {
+        long empty = ~board.getOccupied();
+        if (team == ChessGame.TeamColor.WHITE) {
+            return ((oneStep & AttackTables.RANK_3) << 8) & empty;
         }
+        return ((oneStep & AttackTables.RANK_6) >>> 8) & empty;
+    }
 
-        int[][] captures = { { -1, forward }, { 1, forward } };
-        for (int[] cap : captures) {
-            ChessPosition target = new ChessPosition(currY + cap[1], currX + cap[0]);
-            if (MoveCalculator.isValidSquare(target)) {
-                ChessPiece targetPiece = board.getPiece(target);
-                if (targetPiece != null && targetPiece.getTeamColor() != team) {
-                    if (target.getRow() == promotionRank) {
-                        for (ChessPiece.PieceType type : promotionTypes) {
-                            moves.add(new ChessMove(currPosition, target, type));
-                        }
-                    } else {
-                        moves.add(new ChessMove(currPosition, target, null));
-                    }
+    private static void addPawnMoves(int from, long targets, int flags, MoveList moves) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (((1L << to) & (AttackTables.RANK_1 | AttackTables.RANK_8)) != 0) {
+                for (int promotion : PROMOTIONS) {
+                    moves.add(PackedMove.encode(from, to, promotion, flags));
                 }
+            } else {
+                moves.add(PackedMove.encode(from, to, 0, flags));
             }
         }
-
-        return moves;
     }
 }
@@ -1,19 +1,29 @@
 package chess.MoveCalculators;
 
 import chess.ChessBoard;
+import chess.ChessGame;
 import chess.ChessMove;
+import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.MoveList;
 
 import java.util.HashSet;
 
 public class QueenMoveCalculator implements MoveCalculator {
 
     public static HashSet<ChessMove> getMoves(ChessBoard board, ChessPosition currPosition) {
-        int[][] moveDirections = {
-                {-1, 1},  { 1, 1},  { 1,-1},  {-1,-1},  // diagonals
-                { 0, 1},  { 1, 0},  { 0,-1},  {-1, 0}   // straight lines
-        };
+        return MoveCalculator.collectMoves(board, currPosition, ChessPiece.PieceType.QUEEN);
+    }
+
+    public static void generate(ChessBoard board, int square, ChessGame.TeamColor team, long targetMask,
+                                MoveList moves) {
+        MoveCalculator.addMoves(board, square, targets(board, square, team) & targetMask, moves);
+    }
 
-        return MoveCalculator.generateMoves(board, currPosition, moveDirections, true);
+    /**
+     * @return every square the piece on {@code square} could move to, ignoring king safety
+     */
+    public static long targets(ChessBoard board, int square, ChessGame.TeamColor team) {
+        return SlidingAttacks.queenAttacks(square, board.getOccupied()) & ~board.getOccupancy(team);
     }
 }
@@ -0,0 +1,156 @@
+package chess.MoveCalculators;
+
+/**
+ * Magic-bitboard attack lookup for rooks, bishops and queens.
+ * <p>
+ * For each square the relevant blocker mask (the squares along the piece's rays,
+ * excluding the board edge) is hashed with a per-square magic multiplier into a
+ * dense table of precomputed attack sets. The tables are filled when the class
+ * loads, so a lookup at runtime is a mask, a multiply, a shift and an array read.
+ * <p>
+ * The magic multipliers were found offline with the usual sparse-random search
+ * (xorshift64*, per-rank seeds) and are kept as constants; searching for them at
+ * class load took close to a second.
+ */
+public final class SlidingAttacks {
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, 1}, {1, 1}, {1, -1}, {-1, -1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0x0A80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+            0xC200209084020008L, 0x2100010004000208L, 0x0400081000822421L, 0x0200010422048844L,
+            0x0800800080400024L, 0x0001402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+            0x0904802402480080L, 0x4040800400020080L, 0x0018808042000100L, 0x4040800080004100L,
+            0x0040048001458024L, 0x00A0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+            0x5004808008000401L, 0x2024818004000A00L, 0x0005808002000100L, 0x2100060004806104L,
+            0x0080400880008421L, 0x4062220600410280L, 0x010A004A00108022L, 0x0000100080080080L,
+            0x0021000500080010L, 0x0044000202001008L, 0x0000100400080102L, 0xC020128200040545L,
+            0x0080002000400040L, 0x0000804000802004L, 0x0000120022004080L, 0x010A386103001001L,
+            0x9010080080800400L, 0x8440020080800400L, 0x0004228824001001L, 0x000000490A000084L,
+            0x0080002000504000L, 0x200020005000C000L, 0x0012088020420010L, 0x0010010080080800L,
+            0x0085001008010004L, 0x0002000204008080L, 0x0040413002040008L, 0x0000304081020004L,
+            0x0080204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+            0x5000850800910100L, 0x8402019004680200L, 0x0120911028020400L, 0x0000008044010200L,
+            0x0020850200244012L, 0x0020850200244012L, 0x0000102001040841L, 0x140900040A100021L,
+            0x000200282410A102L, 0x000200282410A102L, 0x000200282410A102L, 0x4048240043802106L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x40106000A1160020L, 0x0020010250810120L, 0x2010010220280081L, 0x002806004050C040L,
+            0x0002021018000000L, 0x2001112010000400L, 0x0881010120218080L, 0x1030820110010500L,
+            0x0000120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x0003422A02000001L,
+            0x000A220210100040L, 0x8004820202226000L, 0x0018234854100800L, 0x0100004042101040L,
+            0x0004001004082820L, 0x0010000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+            0x0040880C00A00100L, 0x0080400200522010L, 0x0001000188180B04L, 0x0080249202020204L,
+            0x1004400004100410L, 0x00013100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+            0x4020848004002000L, 0x10101380D1004100L, 0x0008004422020284L, 0x01010A1041008080L,
+            0x0808080400082121L, 0x0808080400082121L, 0x0091128200100C00L, 0x0202200802010104L,
+            0x8C0A020200440085L, 0x01A0008080B10040L, 0x0889520080122800L, 0x100902022202010AL,
+            0x04081A0816002000L, 0x0000681208005000L, 0x8170840041008802L, 0x0A00004200810805L,
+            0x0830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+            0x0602010120110040L, 0x0941010801043000L, 0x000040440A210428L, 0x0008240020880021L,
+            0x0400002012048200L, 0x00AC102001210220L, 0x0220021002009900L, 0x84440C080A013080L,
+            0x0001008044200440L, 0x0004C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+            0x0044800112202200L, 0x0434804908100424L, 0x0300404822C08200L, 0x48081010008A2A80L
+    };
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MAGICS[square], ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MAGICS[square], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * @param square   square index, 0 (a1) through 63 (h8)
+     * @param occupied bitboard of every occupied square
+     * @return squares a rook on {@code square} attacks, including the first
+     * blocker along each ray whatever its color
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[square][index];
+    }
+
+    /**
+     * @param square   square index, 0 (a1) through 63 (h8)
+     * @param occupied bitboard of every occupied square
+     * @return squares a bishop on {@code square} attacks, including the first
+     * blocker along each ray whatever its color
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[square][index];
+    }
+
+    /**
+     * @return union of the rook and bishop attacks from {@code square}
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static void initSquare(int square, int[][] directions, long magic, long[] masks,
+                                   int[] shifts, long[][] tables) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int shift = 64 - bits;
+        long[] table = new long[1 << bits];
+
+        // enumerate every blocker subset of the mask (carry-rippler) and store its attack set
+        long subset = 0L;
+        do {
+            table[(int) ((subset * magic) >>> shift)] = walkRays(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        masks[square] = mask;
+        shifts[square] = shift;
+        tables[square] = table;
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        int col = square & 7;
+        int row = square >>> 3;
+        for (int[] dir : directions) {
+            int x = col + dir[0];
+            int y = row + dir[1];
+            // the last square on a ray never blocks anything behind it, so leave it out
+            while (x + dir[0] >= 0 && x + dir[0] < 8 && y + dir[1] >= 0 && y + dir[1] < 8) {
+                mask |= 1L << (y * 8 + x);
+                x += dir[0];
+                y += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long walkRays(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        int col = square & 7;
+        int row = square >>> 3;
+        for (int[] dir : directions) {
+            int x = col + dir[0];
+            int y = row + dir[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                long bit = 1L << (y * 8 + x);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                x += dir[0];
+                y += dir[1];
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,83 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * A reusable buffer of {@link PackedMove packed moves}. Generators append to the
+ * end of the list, so one instance can be cleared and refilled for every
+ * position without allocating.
+ */
+public class MoveList {
+    /** More than the most legal moves any chess position allows (218). */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move at or after {@code newSize}
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return true if the list holds a move equal to {@code move}, ignoring flags
+     */
+    public boolean contains(int move) {
+        int wanted = move & PackedMove.MOVE_MASK;
+        for (int i = 0; i < size; i++) {
+            if ((moves[i] & PackedMove.MOVE_MASK) == wanted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the moves as {@link ChessMove} objects, for callers of the collection API
+     */
+    public HashSet<ChessMove> toChessMoves() {
+        HashSet<ChessMove> result = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            result.add(PackedMove.toChessMove(moves[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+/**
+ * Static helpers for moves packed into a single {@code int}, as written into a
+ * {@link MoveList} by the engine's move generators.
+ * <pre>
+ * bits  0-5   start square, 0 (a1) through 63 (h8)
+ * bits  6-11  end square
+ * bits 12-14  promotion piece, 0 for none or {@code PieceType.ordinal() + 1}
+ * bits 15-18  flags ({@link #CAPTURE}, {@link #DOUBLE_PUSH}, ...)
+ * </pre>
+ * Two packed moves describe the same {@link ChessMove} when their
+ * {@link #MOVE_MASK} bits are equal; the flags only carry extra detail.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+
+    public static final int MOVE_MASK = (1 << 15) - 1;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param promotion promotion piece type ordinal + 1, or 0 for no promotion
+     */
+    public static int encode(int from, int to, int promotion, int flags) {
+        return from | (to << 6) | (promotion << 12) | flags;
+    }
+
+    public static int encode(ChessMove move) {
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        return encode(ChessBoard.squareIndex(move.getStartPosition()),
+                ChessBoard.squareIndex(move.getEndPosition()),
+                promotion == null ? 0 : promotion.ordinal() + 1, 0);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return promotion piece type ordinal + 1, or 0 for no promotion
+     */
+    public static int promotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static ChessPiece.PieceType promotionType(int move) {
+        int promotion = promotion(move);
+        return promotion == 0 ? null : TYPES[promotion - 1];
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
@@ -0,0 +1,220 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the leaf nodes of the legal-move tree to a fixed depth. The counts for
+ * well-known positions are published, so a mismatch pins down a move
+ * generation bug, and the time taken gives a nodes-per-second figure for the
+ * engine. The last ply is counted from the size of the move list rather than by
+ * playing each move.
+ * <p>
+ * Deep counts can be spread over a {@link ForkJoinPool}: the tree is split at
+ * the root moves, and again below them until the subtrees are small, and each
+ * task plays its subtree on its own copy of the position.
+ */
+public final class Perft {
+    /**
+     * Subtrees this many plies deep or less are counted by one task on its
+     * own, in place, rather than split into tasks that each copy the position
+     */
+    private static final int SEQUENTIAL_DEPTH = 4;
+
+    /**
+     * Standard perft positions with their published leaf counts, from depth 1 up
+     */
+    public enum Position {
+        START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                20, 400, 8902, 197281, 4865609, 119060324),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                48, 2039, 97862, 4085603, 193690690),
+        ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                14, 191, 2812, 43238, 674624, 11030083),
+        PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                6, 264, 9467, 422333, 15833292),
+        MIDDLEGAME("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                44, 1486, 62379, 2103487, 89941194),
+        QUIET("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                46, 2079, 89890, 3894594, 164075551);
+
+        private final String fen;
+        private final long[] counts;
+
+        Position(String fen, long... counts) {
+            this.fen = fen;
+            this.counts = counts;
+        }
+
+        public String fen() {
+            return fen;
+        }
+
+        /**
+         * @return a new game at this position
+         */
+        public ChessGame game() {
+            return ChessGame.fromFen(fen);
+        }
+
+        /**
+         * @return the deepest depth with a known count
+         */
+        public int maxDepth() {
+            return counts.length;
+        }
+
+        /**
+         * @param depth 1 through {@link #maxDepth()}
+         * @return the published number of leaf nodes at that depth
+         */
+        public long expected(int depth) {
+            return counts[depth - 1];
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts leaf nodes from a game's current position. The game is played
+     * forward and back but left as it was.
+     *
+     * @param game  the position to start from
+     * @param depth plies to search, 0 or more
+     * @return the number of move sequences of exactly that many plies
+     */
+    public static long count(ChessGame game, int depth) {
+        if (depth == 0) return 1;
+        MoveList[] lists = new MoveList[depth];
+        for (int ply = 0; ply < depth; ply++) {
+            lists[ply] = new MoveList();
+        }
+        return count(game, depth, lists);
+    }
+
+    /**
+     * Like {@link #count(ChessGame, int)}, generating each ply's moves into the
+     * list at {@code lists[depth - 1]}
+     */
+    static long count(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        moves.clear();
+        game.legalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) return moves.size();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaf nodes like {@link #count(ChessGame, int)}, with the work
+     * shared among a pool's threads. The game is played forward and back at
+     * the root but left as it was, and must not be used elsewhere meanwhile.
+     *
+     * @param game  the position to start from
+     * @param depth plies to search, 0 or more
+     * @param pool  the pool to run the count in
+     * @return the number of move sequences of exactly that many plies
+     */
+    public static long count(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth == 0) return 1;
+        long nodes = 0;
+        for (LongAdder counter : countEachMove(game, depth, new MoveList(), pool)) {
+            nodes += counter.sum();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each of the root moves, in parallel as
+     * {@link #count(ChessGame, int, ForkJoinPool)} does. Comparing these counts
+     * with another move generator's narrows a wrong total down to one move.
+     *
+     * @param game  the position to start from
+     * @param depth plies to search, 1 or more
+     * @param pool  the pool to run the count in
+     * @return each legal move with its count, in the order the moves were generated
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1, was " + depth);
+        MoveList moves = new MoveList();
+        LongAdder[] counters = countEachMove(game, depth, moves, pool);
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(PackedMove.toChessMove(moves.get(i)), counters[i].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Generates the root moves into {@code moves} and counts below each of
+     * them, every subtree adding its leaves to its root move's counter. A
+     * count too shallow to be worth splitting runs on the calling thread.
+     */
+    private static LongAdder[] countEachMove(ChessGame game, int depth, MoveList moves, ForkJoinPool pool) {
+        game.legalMoves(game.getTeamTurn(), moves);
+        LongAdder[] counters = new LongAdder[moves.size()];
+        boolean split = depth - 1 > SEQUENTIAL_DEPTH;
+        List<CountTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            counters[i] = new LongAdder();
+            game.makeMove(moves.get(i));
+            if (split) {
+                tasks.add(new CountTask(game.copyPosition(), depth - 1, counters[i]));
+            } else {
+                counters[i].add(count(game, depth - 1));
+            }
+            game.unmakeMove();
+        }
+        if (tasks.isEmpty()) return counters;
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(tasks);
+        }));
+        return counters;
+    }
+
+    /**
+     * Counts the leaves below a position it owns, forking a task per move
+     * until the subtrees are small enough to count directly
+     */
+    @SuppressWarnings("serial") // tasks only live in a pool, never serialized
+    private static final class CountTask extends RecursiveAction {
+        private final ChessGame game;
+        private final int depth;
+        private final LongAdder counter;
+
+        CountTask(ChessGame game, int depth, LongAdder counter) {
+            this.game = game;
+            this.depth = depth;
+            this.counter = counter;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                counter.add(count(game, depth));
+                return;
+            }
+            MoveList moves = new MoveList();
+            game.legalMoves(game.getTeamTurn(), moves);
+            CountTask[] children = new CountTask[moves.size()];
+            for (int i = 0; i < moves.size(); i++) {
+                game.makeMove(moves.get(i));
+                children[i] = new CountTask(game.copyPosition(), depth - 1, counter);
+                game.unmakeMove();
+            }
+            invokeAll(children);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package chess;
+
+/**
+ * Piece values and square bonuses for evaluation, in centipawns, with one set
+ * for the middlegame and one for the endgame. A position's score is blended
+ * between the two by its game phase: {@link #MAX_PHASE} with every minor and
+ * major piece still on the board, falling to 0 as they are traded off.
+ * <p>
+ * The {@link ChessBoard} keeps both totals and the phase up to date as
+ * pieces are placed and removed, so evaluating a position reads two fields
+ * rather than scanning the board. The tables are the "simplified evaluation
+ * function" ones, written from white's side with rank 8 at the top, with an
+ * endgame king that heads for the centre and endgame pawns worth more the
+ * further they have advanced.
+ */
+public final class PieceSquareTables {
+    /** The phase of a position with all the starting pieces. */
+    public static final int MAX_PHASE = 24;
+
+    /** By {@link ChessPiece.PieceType} ordinal; the king is never traded. */
+    private static final int[] MIDGAME_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 900, 330, 300, 520, 120};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * By piece index then square: the middlegame score in the low 16 bits and
+     * the endgame score above it, both positive for white, so one addition
+     * updates both totals
+     */
+    private static final int[][] PACKED_SCORES = new int[ChessBoard.NUM_PIECE_INDICES][ChessBoard.NUM_SQUARES];
+
+    static {
+        int[][] midgameTables = {KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int t = type.ordinal();
+                int sign = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+                for (int square = 0; square < ChessBoard.NUM_SQUARES; square++) {
+                    // the tables read from rank 8 down for white; black sees them mirrored
+                    int row = color == ChessGame.TeamColor.WHITE ? 7 - (square >> 3) : square >> 3;
+                    int entry = row * 8 + (square & 7);
+                    int midgame = sign * (MIDGAME_VALUES[t] + midgameTables[t][entry]);
+                    int endgame = sign * (ENDGAME_VALUES[t] + endgameTables[t][entry]);
+                    PACKED_SCORES[ChessBoard.pieceIndex(color, type)][square] = pack(midgame, endgame);
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return both scores of a piece on a square, packed as
+     * {@link #midgame(int)} and {@link #endgame(int)} read them
+     */
+    public static int packedScore(int pieceIndex, int square) {
+        return PACKED_SCORES[pieceIndex][square];
+    }
+
+    /**
+     * @return how much a piece adds to the game phase
+     */
+    public static int phaseWeight(int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    private static int pack(int midgame, int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    /**
+     * @param packed a packed score, or a sum of them
+     * @return the middlegame part, positive for white
+     */
+    public static int midgame(int packed) {
+        return (short) packed;
+    }
+
+    /**
+     * @param packed a packed score, or a sum of them
+     * @return the endgame part, positive for white
+     */
+    public static int endgame(int packed) {
+        // undo the borrow a negative middlegame part took from the endgame part
+        return (packed + 0x8000) >> 16;
+    }
+
+    /**
+     * Blends the middlegame and endgame scores by how much material is left
+     *
+     * @param packed a sum of packed scores
+     * @param phase  the game phase; more than {@link #MAX_PHASE} after promotions counts as that
+     * @return the score in centipawns, positive for white
+     */
+    public static int taper(int packed, int phase) {
+        int midgameWeight = Math.min(phase, MAX_PHASE);
+        return (midgame(packed) * midgameWeight + endgame(packed) * (MAX_PHASE - midgameWeight)) / MAX_PHASE;
+    }
+}
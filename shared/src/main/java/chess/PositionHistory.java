@@ -0,0 +1,91 @@
+package chess;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
+
+/**
+ * The {@link ChessGame#positionKey() position keys} a game has passed through,
+ * one per ply, each stored with how many times that position has occurred so
+ * far. The count is worked out when the key is pushed, by looking back only
+ * as far as the last capture or pawn move (nothing earlier can repeat), so
+ * asking whether the current position has repeated is a single array read.
+ * <p>
+ * Only that repeatable window is written to JSON; earlier positions can never
+ * matter again.
+ */
+@JsonAdapter(PositionHistoryAdapter.class)
+public class PositionHistory {
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private int[] clocks = new int[DEFAULT_CAPACITY];
+    private int[] occurrences = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * Records a position reached after a move
+     *
+     * @param key           the position's key
+     * @param halfmoveClock plies since the last capture or pawn move, this one included
+     */
+    public void push(long key, int halfmoveClock) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            clocks = Arrays.copyOf(clocks, size * 2);
+            occurrences = Arrays.copyOf(occurrences, size * 2);
+        }
+        int count = 1;
+        // the same side is to move only every other ply
+        int oldest = Math.max(0, size - halfmoveClock);
+        for (int i = size - 2; i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                count = occurrences[i] + 1;
+                break;
+            }
+        }
+        keys[size] = key;
+        clocks[size] = halfmoveClock;
+        occurrences[size] = count;
+        size++;
+    }
+
+    /**
+     * Forgets the latest position, when its move is taken back
+     */
+    public void pop() {
+        if (size > 0) size--;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the latest position's key; only meaningful when not empty
+     */
+    public long lastKey() {
+        return keys[size - 1];
+    }
+
+    /**
+     * @return how many times the latest position has occurred, itself included
+     */
+    public int occurrences() {
+        return size == 0 ? 0 : occurrences[size - 1];
+    }
+
+    /**
+     * @return the keys that can still repeat, oldest first: the latest position
+     * and every one since the last capture or pawn move
+     */
+    long[] repeatableKeys() {
+        if (size == 0) return new long[0];
+        int start = Math.max(0, size - 1 - clocks[size - 1]);
+        return Arrays.copyOfRange(keys, start, size);
+    }
+}
@@ -0,0 +1,44 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter that stores a {@link PositionHistory} as a plain array of the
+ * position keys that can still repeat, oldest first. Reading pushes them back
+ * in order, which recomputes the occurrence counts.
+ */
+public class PositionHistoryAdapter extends TypeAdapter<PositionHistory> {
+
+    @Override
+    public void write(JsonWriter out, PositionHistory history) throws IOException {
+        if (history == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (long key : history.repeatableKeys()) {
+            out.value(key);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public PositionHistory read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        PositionHistory history = new PositionHistory();
+        in.beginArray();
+        for (int ply = 0; in.hasNext(); ply++) {
+            history.push(in.nextLong(), ply);
+        }
+        in.endArray();
+        return history;
+    }
+}
@@ -0,0 +1,64 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A growable stack of packed {@code long} undo records, one per move played on
+ * a {@link ChessGame}. Pushing and popping never allocate once the stack has
+ * grown to the game's length.
+ */
+public class UndoStack {
+    /** Long enough for most games without growing. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private long[] entries;
+    private int size;
+
+    public UndoStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public UndoStack(int capacity) {
+        entries = new long[capacity];
+    }
+
+    public void push(long entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = entry;
+    }
+
+    public long pop() {
+        if (size == 0) {
+            throw new IllegalStateException("No moves to undo");
+        }
+        return entries[--size];
+    }
+
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("No moves to undo");
+        }
+        return entries[size - 1];
+    }
+
+    /**
+     * @return the entry {@code depth} moves back, 0 being the latest
+     */
+    public long get(int depth) {
+        return entries[size - 1 - depth];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
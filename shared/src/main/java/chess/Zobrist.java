@@ -0,0 +1,89 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key
+ * of every (piece, square) pair on the board plus one key for each piece of game
+ * state, so playing or taking back a move only XORs the few keys that changed.
+ * <p>
+ * The keys come from a fixed-seed SplitMix64 sequence, so the same position has
+ * the same key in every JVM.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[ChessBoard.NUM_PIECE_INDICES][ChessBoard.NUM_SQUARES];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[CastlingRights.ALL + 1];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        long state = 0x4348455353L;
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < keys.length; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                keys[square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+        // one key per combination of rights, so a position's rights cost one XOR;
+        // no rights at all hash to nothing
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            state += 0x9E3779B97F4A7C15L;
+            CASTLING[rights] = mix(state);
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return key for a piece index (see {@link ChessBoard#pieceIndex}) on a square
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @return key XORed in when it is black's turn
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @return key for a set of {@link CastlingRights}
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return key for an en passant target square, or 0 for {@link ChessBoard#EMPTY}
+     */
+    public static long enPassant(int square) {
+        return square == ChessBoard.EMPTY ? 0L : EN_PASSANT_FILE[square & 7];
+    }
+
+    /**
+     * Hashes a board from scratch, ignoring any incremental key it keeps
+     */
+    public static long computePieceKey(ChessBoard board) {
+        long key = 0L;
+        for (int square = 0; square < ChessBoard.NUM_SQUARES; square++) {
+            int index = board.pieceIndexAt(square);
+            if (index != ChessBoard.EMPTY) {
+                key ^= PIECE_SQUARE[index][square];
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,124 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.PackedMove;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses moves: a computer opponent, or a hint for a player. The engine keeps
+ * its transposition table between searches, so searching the positions of one
+ * game in turn reuses earlier work; call {@link #clear()} before starting on
+ * an unrelated game.
+ * <p>
+ * A search can run on several threads, which share the transposition table
+ * and pass what they find to each other through it. One engine runs one search
+ * at a time. {@link #stop()} may be called from another thread.
+ */
+public class Engine {
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * @param hashMegabytes memory for the transposition table
+     */
+    public Engine(int hashMegabytes) {
+        this.table = new TranspositionTable(hashMegabytes);
+    }
+
+    /**
+     * Searches a position, deepening one ply at a time until a limit is
+     * reached. The game is copied, so it is not changed and may be read while
+     * the search runs.
+     *
+     * @param game   the position to search, with the side to move to play
+     * @param limits when to stop
+     * @return the best move found, from the deepest iteration that finished
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, 1);
+    }
+
+    /**
+     * Searches a position like {@link #search(ChessGame, SearchLimits)}, with
+     * helper threads searching alongside the calling thread. The result is
+     * that of whichever thread finished the deepest iteration, the calling
+     * thread's on a tie, with the nodes of every thread counted.
+     *
+     * @param threads how many threads to search on, the calling one included
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, int threads) {
+        long start = System.nanoTime();
+        stop.set(false);
+        AtomicLong nodes = new AtomicLong();
+        Helper[] helpers = new Helper[Math.max(0, threads - 1)];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Helper(new Searcher(game.copy(), table, stop, nodes, i + 1), limits);
+            helpers[i].thread.start();
+        }
+
+        SearchResult best = new Searcher(game.copy(), table, stop, nodes, 0).search(limits);
+        stop.set(true);
+        for (Helper helper : helpers) {
+            SearchResult result = helper.join();
+            if (result.depth() > best.depth() && result.move() != PackedMove.NONE) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as it can, with the best move
+     * found so far
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    /**
+     * Forgets every remembered position
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * A helper searcher on a thread of its own
+     */
+    private static final class Helper {
+        private final Thread thread;
+        private SearchResult result;
+
+        Helper(Searcher searcher, SearchLimits limits) {
+            thread = new Thread(() -> result = searcher.search(limits), "search-helper");
+            thread.setDaemon(true);
+        }
+
+        /**
+         * @return the helper's result, once it has stopped
+         */
+        SearchResult join() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation: material plus a bonus or penalty for the square each
+ * piece stands on, in centipawns, blended from middlegame to endgame values
+ * as pieces come off. The board keeps the totals up to date as moves are
+ * made and taken back, so evaluating a position costs a few arithmetic
+ * operations; nothing is recounted.
+ */
+public final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    /**
+     * @param game the position to score
+     * @return the score in centipawns for the team to move; positive is good for it
+     */
+    public static int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int score = PieceSquareTables.taper(board.getSquareScore(), board.getPhase());
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Scores a position from scratch by visiting every piece, to check the
+     * board's running totals against
+     *
+     * @see #evaluate(ChessGame)
+     */
+    static int rescan(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int squareScore = 0;
+        int phase = 0;
+        for (int square = 0; square < ChessBoard.NUM_SQUARES; square++) {
+            int index = board.pieceIndexAt(square);
+            if (index != ChessBoard.EMPTY) {
+                squareScore += PieceSquareTables.packedScore(index, square);
+                phase += PieceSquareTables.phaseWeight(index);
+            }
+        }
+        int score = PieceSquareTables.taper(squareScore, phase);
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,24 @@
+package chess.engine;
+
+/**
+ * When a search stops deepening. Any limit left at 0 doesn't apply; when
+ * several are set, whichever is reached first ends the search.
+ *
+ * @param depth  the deepest iteration to run, in plies
+ * @param millis wall-clock time allowed, in milliseconds
+ * @param nodes  positions the search may visit
+ */
+public record SearchLimits(int depth, long millis, long nodes) {
+
+    public static SearchLimits toDepth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits forTime(long millis) {
+        return new SearchLimits(0, millis, 0);
+    }
+
+    public static SearchLimits forNodes(long nodes) {
+        return new SearchLimits(0, 0, nodes);
+    }
+}
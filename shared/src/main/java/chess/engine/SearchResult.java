@@ -0,0 +1,45 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.PackedMove;
+
+/**
+ * What a search settled on
+ *
+ * @param move  the best move as a {@link PackedMove packed move}, or
+ *              {@link PackedMove#NONE} if the side to move has no legal move
+ * @param score centipawns for the side to move, or a mate score
+ * @param depth the deepest iteration that finished
+ * @param nodes positions visited
+ * @param nanos time the search took
+ */
+public record SearchResult(int move, int score, int depth, long nodes, long nanos) {
+
+    /**
+     * @return the best move, or null if there is none
+     */
+    public ChessMove bestMove() {
+        return move == PackedMove.NONE ? null : PackedMove.toChessMove(move);
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Searcher.MATE - Searcher.MAX_PLY;
+    }
+
+    /**
+     * @return moves until mate, positive when the side to move mates and
+     * negative when it is mated; 0 if the score isn't a mate
+     */
+    public int movesToMate() {
+        if (!isMate()) return 0;
+        int plies = Searcher.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    public long nodesPerSecond() {
+        return nodes * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,397 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One search of one position: iterative deepening over a principal variation
+ * alpha-beta search, then a captures-only quiescence search at the leaves.
+ * Moves are tried in the order most likely to cut off: the transposition
+ * table's move, captures by most valuable victim and least valuable attacker,
+ * the two killer moves of the ply, then quiet moves by their history score.
+ * <p>
+ * The searcher plays moves on its own game with make/unmake and allocates
+ * nothing once it is running. Several searchers can search one position at
+ * once, Lazy SMP style: they share only the transposition table, the stop flag
+ * and the node count, and each helper's finds reach the others through the
+ * table. Odd-numbered helpers start a ply deeper, so the threads spread out
+ * over different depths instead of repeating each other's work.
+ */
+final class Searcher {
+    static final int MAX_PLY = 64;
+    static final int MATE = 31_000;
+    private static final int INFINITY = 32_000;
+
+    /** Time and the stop flag are read once per this many nodes, plus one. */
+    private static final int CHECK_INTERVAL = 2047;
+
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_LIMIT = KILLER_SCORE - 2;
+    /** MVV-LVA rank by {@link ChessPiece.PieceType} ordinal. */
+    private static final int[] ORDER_RANKS = {6, 5, 3, 2, 4, 1};
+    private static final int QUEEN_PROMOTION = ChessPiece.PieceType.QUEEN.ordinal() + 1;
+    /** More than any difference in capture order, so promotions sort apart from plain captures. */
+    private static final int PROMOTION_ORDER = 64;
+
+    private final ChessGame game;
+    private final TranspositionTable table;
+    private final AtomicBoolean stop;
+    private final AtomicLong sharedNodes;
+    private final int id;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][MoveList.DEFAULT_CAPACITY];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    /** Cutoff counts of quiet moves, by team then from-square * 64 + to-square. */
+    private final int[][] history = new int[2][ChessBoard.NUM_SQUARES * ChessBoard.NUM_SQUARES];
+
+    private long nodes;
+    private long flushedNodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean stopped;
+
+    /**
+     * @param game        a game the searcher may play moves on, left as it was afterwards
+     * @param table       where results are remembered between positions, searches and threads
+     * @param stop        set by another thread to end the search early
+     * @param sharedNodes nodes visited by every searcher of this search together
+     * @param id          0 for the searcher whose result is reported, 1 and up for helpers
+     */
+    Searcher(ChessGame game, TranspositionTable table, AtomicBoolean stop, AtomicLong sharedNodes, int id) {
+        this.game = game;
+        this.table = table;
+        this.stop = stop;
+        this.sharedNodes = sharedNodes;
+        this.id = id;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    SearchResult search(SearchLimits limits) {
+        long start = System.nanoTime();
+        deadline = limits.millis() > 0 ? start + limits.millis() * 1_000_000 : Long.MAX_VALUE;
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        int maxDepth = limits.depth() > 0 ? Math.min(limits.depth(), MAX_PLY) : MAX_PLY;
+        nodes = 0;
+        flushedNodes = 0;
+        stopped = false;
+
+        MoveList root = moveLists[0];
+        root.clear();
+        game.legalMoves(game.getTeamTurn(), root);
+        if (root.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+            return new SearchResult(PackedMove.NONE, score, 0, nodes, System.nanoTime() - start);
+        }
+        scoreMoves(root, 0, PackedMove.NONE);
+        for (int i = 0; i < root.size(); i++) {
+            pickNext(root, 0, i);
+        }
+
+        int bestMove = root.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(1 + (id & 1), maxDepth); depth <= maxDepth; depth++) {
+            int score = searchRoot(root, depth);
+            if (stopped) {
+                // a move that beat the last iteration's best before time ran out is still better
+                if (root.get(0) != bestMove && score > -INFINITY) {
+                    bestMove = root.get(0);
+                    bestScore = score;
+                }
+                break;
+            }
+            bestMove = root.get(0);
+            bestScore = score;
+            completedDepth = depth;
+            if (score >= MATE - depth) break;
+            // the next iteration would take several times longer than this one did;
+            // helpers carry on until told to stop, as their table entries may still help
+            if (id == 0 && deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) break;
+        }
+        sharedNodes.addAndGet(nodes - flushedNodes);
+        flushedNodes = nodes;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Searches every root move, moving each new best to the front so the next
+     * iteration tries it first
+     *
+     * @return the best score, or -INFINITY if stopped before the first move finished
+     */
+    private int searchRoot(MoveList root, int depth) {
+        int alpha = -INFINITY;
+        for (int i = 0; i < root.size(); i++) {
+            int move = root.get(i);
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(-INFINITY, -alpha, depth - 1, 1);
+            } else {
+                score = -negamax(-alpha - 1, -alpha, depth - 1, 1);
+                if (score > alpha && !stopped) {
+                    score = -negamax(-INFINITY, -alpha, depth - 1, 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) break;
+            if (score > alpha) {
+                alpha = score;
+                for (int j = i; j > 0; j--) {
+                    root.set(j, root.get(j - 1));
+                }
+                root.set(0, move);
+            }
+        }
+        return alpha;
+    }
+
+    private int negamax(int alpha, int beta, int depth, int ply) {
+        if (countNode()) return 0;
+        if (game.isRepetition() || game.isFiftyMoveRule() || game.isInsufficientMaterial()) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(game);
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(team);
+        if (inCheck) depth++;
+        if (depth <= 0) return quiesce(alpha, beta, ply);
+
+        // no line from here can beat a mate already found nearer the root
+        alpha = Math.max(alpha, -MATE + ply);
+        beta = Math.min(beta, MATE - ply - 1);
+        if (alpha >= beta) return alpha;
+
+        long key = game.positionKey();
+        long entry = table.probe(key);
+        int tableMove = PackedMove.NONE;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.legalMoves(team, moves);
+        if (moves.isEmpty()) return inCheck ? -MATE + ply : 0;
+        scoreMoves(moves, ply, tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(-beta, -alpha, depth - 1, ply + 1);
+            } else {
+                score = -negamax(-alpha - 1, -alpha, depth - 1, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(-beta, -alpha, depth - 1, ply + 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (isQuiet(move)) rememberCutoff(move, team, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Plays out captures and promotions until the position is quiet, so a
+     * leaf isn't scored in the middle of an exchange. The side to move may
+     * stand pat on the static score instead of capturing, unless it is in
+     * check, when every evasion is searched.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if (countNode()) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(game);
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(team);
+        int bestScore;
+        if (inCheck) {
+            bestScore = -MATE + ply;
+        } else {
+            bestScore = Evaluator.evaluate(game);
+            if (bestScore >= beta) return bestScore;
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.legalMoves(team, moves);
+        if (!inCheck) {
+            int kept = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!isQuiet(move)) moves.set(kept++, move);
+            }
+            moves.truncate(kept);
+        }
+        scoreMoves(moves, ply, PackedMove.NONE);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            game.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Counts a node and checks the limits every so often, adding this
+     * searcher's nodes to the shared count as it does
+     *
+     * @return True if the search has to stop
+     */
+    private boolean countNode() {
+        if (++nodes >= nodeLimit) {
+            stopped = true;
+        } else if ((nodes & CHECK_INTERVAL) == 0) {
+            long allNodes = sharedNodes.addAndGet(nodes - flushedNodes);
+            flushedNodes = nodes;
+            stopped = allNodes >= nodeLimit || System.nanoTime() >= deadline || stop.get();
+        }
+        return stopped;
+    }
+
+    private static boolean isQuiet(int move) {
+        return !PackedMove.hasFlag(move, PackedMove.CAPTURE) && PackedMove.promotion(move) == 0;
+    }
+
+    private void rememberCutoff(int move, ChessGame.TeamColor team, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] teamHistory = history[team.ordinal()];
+        int index = PackedMove.from(move) * ChessBoard.NUM_SQUARES + PackedMove.to(move);
+        teamHistory[index] += depth * depth;
+        if (teamHistory[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < teamHistory.length; i++) {
+                teamHistory[i] /= 2;
+            }
+        }
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int tableMove) {
+        ChessBoard board = game.getBoard();
+        int[] scores = moveScores[ply];
+        int[] plyKillers = killers[ply];
+        int[] teamHistory = history[game.getTeamTurn().ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            int score;
+            if (move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                int victim = PackedMove.hasFlag(move, PackedMove.EN_PASSANT)
+                        ? ChessPiece.PieceType.PAWN.ordinal() : board.pieceIndexAt(to) % 6;
+                score = CAPTURE_SCORE + ORDER_RANKS[victim] * 8 - ORDER_RANKS[board.pieceIndexAt(from) % 6];
+                int promotion = PackedMove.promotion(move);
+                if (promotion == QUEEN_PROMOTION) {
+                    score += PROMOTION_ORDER;
+                } else if (promotion != 0) {
+                    // still a capture, but after every capture that keeps the queen
+                    score -= PROMOTION_ORDER;
+                }
+            } else if (PackedMove.promotion(move) == QUEEN_PROMOTION) {
+                score = CAPTURE_SCORE + PROMOTION_ORDER;
+            } else if (move == plyKillers[0]) {
+                score = KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                score = KILLER_SCORE - 1;
+            } else {
+                score = teamHistory[from * ChessBoard.NUM_SQUARES + to];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best-scored move from {@code index} on into {@code index}, so
+     * moves are only sorted as far as the search gets before a cutoff
+     *
+     * @return the move now at {@code index}
+     */
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Mate scores count plies from the root, but the table is shared between
+     * paths of different lengths, so it stores them counted from the position
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,100 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Remembers what searching a position found, keyed by its
+ * {@link chess.ChessGame#positionKey() Zobrist key}, so a position reached by
+ * another move order is not searched again and its best move is tried first.
+ * <p>
+ * Entries are two longs in one flat array: the key XORed with the data, then
+ * the data, which packs the best move, score, depth and bound together. Each
+ * key has one slot; a different position always takes it over, and the same
+ * position only replaces a deeper result with an exact one.
+ * <p>
+ * The table is shared by every thread of a search without locks. Two threads
+ * storing to one slot at once can leave one's key beside the other's data, but
+ * then the key no longer XORs back out of the pair, so a probe sees a miss
+ * rather than another position's result.
+ */
+final class TranspositionTable {
+    /** The score is at most the stored one: every move failed low. */
+    static final int UPPER = 1;
+    /** The score is at least the stored one: a move failed high. */
+    static final int LOWER = 2;
+    static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_ENTRIES = 1 << 26;
+
+    // data layout: the packed move with its flags, the score as a signed
+    // 16-bit value, the depth and the bound, which is never 0 in a stored entry
+    private static final int MOVE_BITS = (1 << 20) - 1;
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * @param megabytes memory to use, rounded down to a power of two entries
+     */
+    TranspositionTable(int megabytes) {
+        long wanted = Math.max(1, megabytes) * (1L << 20) / ENTRY_BYTES;
+        int count = Integer.highestOneBit((int) Math.min(wanted, MAX_ENTRIES));
+        entries = new long[count * 2];
+        mask = count - 1;
+    }
+
+    /**
+     * @return the data stored for the key, or 0 if there is none
+     */
+    long probe(long key) {
+        int slot = slot(key);
+        long data = entries[slot + 1];
+        return (entries[slot] ^ data) == key ? data : 0;
+    }
+
+    /**
+     * @param score already adjusted so mate scores count from this position
+     */
+    void store(long key, int move, int score, int depth, int bound) {
+        int slot = slot(key);
+        long old = entries[slot + 1];
+        if ((entries[slot] ^ old) == key) {
+            if (depth < depth(old) && bound != EXACT) return;
+            if (move == 0) move = move(old);
+        }
+        long data = move & MOVE_BITS
+                | (long) (score & 0xFFFF) << SCORE_SHIFT
+                | (long) Math.min(depth, 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT;
+        entries[slot] = key ^ data;
+        entries[slot + 1] = data;
+    }
+
+    void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    static int move(long data) {
+        return (int) (data & MOVE_BITS);
+    }
+
+    static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT & 0xFF);
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT & 3);
+    }
+
+    private int slot(long key) {
+        return (int) (key & mask) * 2;
+    }
+}
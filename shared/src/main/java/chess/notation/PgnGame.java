@@ -0,0 +1,93 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One game from a PGN file: its tag pairs, its moves as
+ * {@link chess.PackedMove packed moves} and its result. The moves are played
+ * from the standard starting position, or from the position in the
+ * {@code FEN} tag when there is one.
+ */
+public class PgnGame {
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final Map<String, String> tags;
+    private final MoveList moves;
+    private final String result;
+
+    public PgnGame(Map<String, String> tags, MoveList moves, String result) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = moves;
+        this.result = result;
+    }
+
+    /**
+     * Takes the moves played in a game, for writing it out
+     *
+     * @param tags   tag pairs to write, in order
+     * @param game   a game whose moves can all still be taken back
+     * @param result {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@link #UNKNOWN_RESULT}
+     */
+    public static PgnGame of(Map<String, String> tags, ChessGame game, String result) {
+        MoveList moves = new MoveList();
+        game.playedMoves(moves);
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            game.unmakeMove();
+        }
+        String startFen = game.toFen();
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+        }
+
+        Map<String, String> allTags = new LinkedHashMap<>(tags);
+        if (!startFen.equals(new ChessGame().toFen())) {
+            allTags.put("SetUp", "1");
+            allTags.put("FEN", startFen);
+        }
+        allTags.put("Result", result);
+        return new PgnGame(allTags, moves, result);
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public MoveList getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return a new game at the starting position
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return a new game with every move played, each of which can be taken back
+     */
+    public ChessGame replay() {
+        ChessGame game = startingPosition();
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+        }
+        return game;
+    }
+}
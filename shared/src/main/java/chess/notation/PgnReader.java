@@ -0,0 +1,242 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads PGN files one game at a time. Only the game being read is held in
+ * memory, so files of any size can be streamed through it. Each move is
+ * checked by replaying it on a {@link ChessGame}; comments, variations,
+ * numeric annotation glyphs and escape lines are skipped.
+ * <p>
+ * The reader does its own buffering, so the {@link Reader} it is given needn't
+ * be buffered.
+ */
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private boolean lineStart = true;
+
+    private final StringBuilder token = new StringBuilder(32);
+    private final MoveList scratch = new MoveList();
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null at the end of the input
+     * @throws IOException if reading fails, or the game is malformed or has an
+     *                     illegal move; the message gives the line
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        ChessGame game = null;
+        MoveList moves = null;
+        String result = null;
+
+        while (true) {
+            int c = skipWhitespace();
+            if (c == -1) {
+                if (tags.isEmpty() && game == null) return null;
+                break;
+            }
+            if (c == '[') {
+                if (game != null) break; // the next game's tags, with no result before them
+                read();
+                readTag(tags);
+                continue;
+            }
+            if (c == '%' && lineStart || c == ';') {
+                skipLine();
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == ')' || c == '}' || c == ']') {
+                throw error("unexpected '" + (char) c + "'");
+            } else {
+                readToken();
+                if (game == null) {
+                    game = startingPosition(tags);
+                    moves = new MoveList();
+                }
+                result = resultOf(token);
+                if (result != null) break;
+                // a numeric annotation glyph, or a !/? annotation set apart from its move
+                if (stripMoveNumber() && "$!?".indexOf(token.charAt(0)) < 0) {
+                    playMove(game, moves);
+                }
+            }
+        }
+
+        if (result == null) {
+            result = tags.getOrDefault("Result", PgnGame.UNKNOWN_RESULT);
+        }
+        return new PgnGame(tags, moves == null ? new MoveList(0) : moves, result);
+    }
+
+    private ChessGame startingPosition(Map<String, String> tags) throws IOException {
+        String fen = tags.get("FEN");
+        if (fen == null) return new ChessGame();
+        try {
+            return ChessGame.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    private void playMove(ChessGame game, MoveList moves) throws IOException {
+        int move;
+        try {
+            move = San.parse(game, token, scratch);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        game.makeMove(move);
+        moves.add(move);
+    }
+
+    /**
+     * @return the game result a token spells, or null if it isn't one
+     */
+    private static String resultOf(CharSequence token) {
+        if (contentEquals(token, "1-0")) return "1-0";
+        if (contentEquals(token, "0-1")) return "0-1";
+        if (contentEquals(token, "1/2-1/2")) return "1/2-1/2";
+        if (contentEquals(token, "*")) return PgnGame.UNKNOWN_RESULT;
+        return null;
+    }
+
+    private static boolean contentEquals(CharSequence a, String b) {
+        if (a.length() != b.length()) return false;
+        for (int i = 0; i < b.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a leading move number such as {@code 12.} or {@code 12...}
+     *
+     * @return True if anything is left of the token
+     */
+    private boolean stripMoveNumber() {
+        int digits = 0;
+        while (digits < token.length() && Character.isDigit(token.charAt(digits))) digits++;
+        int dots = digits;
+        while (dots < token.length() && token.charAt(dots) == '.') dots++;
+        if (digits > 0 && (dots > digits || dots == token.length())) {
+            token.delete(0, dots);
+        }
+        return token.length() > 0;
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        skipWhitespace();
+        token.setLength(0);
+        for (int c = peek(); c != -1 && c != '"' && c != ']' && !Character.isWhitespace(c); c = peek()) {
+            token.append((char) read());
+        }
+        String name = token.toString();
+        if (skipWhitespace() != '"') throw error("tag " + name + " has no quoted value");
+        read();
+        token.setLength(0);
+        for (int c = read(); c != '"'; c = read()) {
+            if (c == -1 || c == '\n') throw error("tag " + name + " value is not closed");
+            if (c == '\\') c = read();
+            token.append((char) c);
+        }
+        if (skipWhitespace() != ']') throw error("tag " + name + " is not closed");
+        read();
+        tags.put(name, token.toString());
+    }
+
+    private void readToken() throws IOException {
+        token.setLength(0);
+        for (int c = peek(); c != -1 && !Character.isWhitespace(c) && "{}()[];".indexOf(c) < 0; c = peek()) {
+            token.append((char) read());
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int startLine = line;
+        for (int c = read(); c != '}'; c = read()) {
+            if (c == -1) throw new IOException("Line " + startLine + ": comment is not closed");
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int startLine = line;
+        read();
+        for (int depth = 1; depth > 0; ) {
+            int c = read();
+            if (c == -1) throw new IOException("Line " + startLine + ": variation is not closed");
+            if (c == '(') depth++;
+            else if (c == ')') depth--;
+            else if (c == '{') skipComment();
+            else if (c == ';') skipLine();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        for (int c = read(); c != -1 && c != '\n'; c = read()) {
+        }
+    }
+
+    /**
+     * @return the next character that isn't whitespace, without consuming it, or -1
+     */
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c != -1 && (Character.isWhitespace(c) || c == '\uFEFF')) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            lineStart = c == '\n';
+            if (lineStart) line++;
+        }
+        return c;
+    }
+
+    private IOException error(String problem) {
+        return new IOException("Line " + line + ": " + problem);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
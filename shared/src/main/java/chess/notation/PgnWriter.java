@@ -0,0 +1,80 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games as PGN, one after another: the tag pairs, then the moves in
+ * SAN with move numbers, wrapped to 80 columns, then the result.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int LINE_WIDTH = 80;
+
+    private final Writer out;
+    private final MoveList scratch = new MoveList();
+    private int column;
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @param game the game to write
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if one of the game's moves is illegal
+     */
+    public void write(PgnGame game) throws IOException {
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            out.write('[');
+            out.write(tag.getKey());
+            out.write(" \"");
+            out.write(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\""));
+            out.write("\"]\n");
+        }
+        out.write('\n');
+
+        ChessGame position = game.startingPosition();
+        MoveList moves = game.getMoves();
+        column = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (position.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                word(position.getFullmoveNumber() + ".");
+            } else if (i == 0) {
+                word(position.getFullmoveNumber() + "...");
+            }
+            word(San.toSan(position, move, scratch));
+            position.makeMove(move);
+        }
+        word(game.getResult());
+        out.write("\n\n");
+    }
+
+    private void word(String word) throws IOException {
+        if (column > 0 && column + 1 + word.length() > LINE_WIDTH) {
+            out.write('\n');
+            column = 0;
+        } else if (column > 0) {
+            out.write(' ');
+            column++;
+        }
+        out.write(word);
+        column += word.length();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
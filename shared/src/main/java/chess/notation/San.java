@@ -0,0 +1,266 @@
+package chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Standard Algebraic Notation: {@code e4}, {@code Nbd7}, {@code exd6},
+ * {@code O-O-O}, {@code e8=Q+}, {@code Qh4#}. Moves are always written and
+ * read against the position they are played from, since both the
+ * disambiguation and the check suffix depend on it.
+ */
+public final class San {
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private San() {
+    }
+
+    /**
+     * @param game the position the move is played from
+     * @param move a legal move for the team to move
+     * @return the move in SAN, with a {@code +} or {@code #} suffix where it checks or mates
+     * @throws IllegalArgumentException if the move is not legal
+     */
+    public static String toSan(ChessGame game, ChessMove move) {
+        return toSan(game, PackedMove.encode(move), new MoveList());
+    }
+
+    /**
+     * @see #toSan(ChessGame, ChessMove)
+     */
+    public static String toSan(ChessGame game, int move) {
+        return toSan(game, move, new MoveList());
+    }
+
+    /**
+     * Like {@link #toSan(ChessGame, int)}, generating the position's moves
+     * into a list the caller reuses
+     */
+    static String toSan(ChessGame game, int move, MoveList scratch) {
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moving = board.pieceIndexAt(from);
+        scratch.clear();
+        game.legalMoves(game.getTeamTurn(), scratch);
+        if (moving == ChessBoard.EMPTY || !scratch.contains(move)) {
+            throw new IllegalArgumentException("Illegal move " + PackedMove.toChessMove(move));
+        }
+        ChessPiece.PieceType type = ChessBoard.pieceFor(moving).getPieceType();
+
+        StringBuilder san = new StringBuilder(8);
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = board.pieceIndexAt(to) != ChessBoard.EMPTY
+                    || type == ChessPiece.PieceType.PAWN && (to & 7) != (from & 7);
+            if (type == ChessPiece.PieceType.PAWN) {
+                if (capture) san.append(file(from));
+            } else {
+                san.append(PIECE_LETTERS.charAt(type.ordinal()));
+                appendDisambiguation(san, board, scratch, from, to, moving);
+            }
+            if (capture) san.append('x');
+            san.append(file(to)).append(rank(to));
+            ChessPiece.PieceType promotion = PackedMove.promotionType(move);
+            if (promotion != null) {
+                san.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        }
+
+        ChessGame.TeamColor opponent = game.getTeamTurn().opponent();
+        game.makeMove(move);
+        ChessPosition king = board.getKingPosition(opponent);
+        if (king != null && game.isSquareAttacked(king, opponent.opponent())) {
+            san.append(game.hasAnyLegalMove(opponent) ? '+' : '#');
+        }
+        game.unmakeMove();
+        return san.toString();
+    }
+
+    /**
+     * Adds the file, rank or both of the start square when another piece of
+     * the same kind could also move to {@code to}
+     */
+    private static void appendDisambiguation(StringBuilder san, ChessBoard board, MoveList legal,
+                                             int from, int to, int moving) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = PackedMove.from(legal.get(i));
+            if (other != from && PackedMove.to(legal.get(i)) == to && board.pieceIndexAt(other) == moving) {
+                ambiguous = true;
+                sameFile |= (other & 7) == (from & 7);
+                sameRank |= other >> 3 == from >> 3;
+            }
+        }
+        if (!ambiguous) return;
+        if (!sameFile) {
+            san.append(file(from));
+        } else if (!sameRank) {
+            san.append(rank(from));
+        } else {
+            san.append(file(from)).append(rank(from));
+        }
+    }
+
+    /**
+     * Finds the legal move a SAN string names. Check, mate and annotation
+     * suffixes ({@code +#!?}) are ignored, {@code 0-0} is accepted for
+     * {@code O-O}, and coordinate moves such as {@code e2e4}, {@code g1f3} or
+     * {@code a7a8q} are read too.
+     *
+     * @param game the position the move is played from
+     * @param san  the move's text
+     * @return the matching legal {@link PackedMove packed move}
+     * @throws IllegalArgumentException if no legal move, or more than one, matches
+     */
+    public static int parse(ChessGame game, CharSequence san) {
+        return parse(game, san, new MoveList());
+    }
+
+    /**
+     * Like {@link #parse(ChessGame, CharSequence)}, generating the position's
+     * moves into a list the caller reuses
+     */
+    static int parse(ChessGame game, CharSequence san, MoveList scratch) {
+        int end = san.length();
+        while (end > 0 && "+#!? ".indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) throw new IllegalArgumentException("Not a move: '" + san + "'");
+
+        ChessBoard board = game.getBoard();
+        scratch.clear();
+        game.legalMoves(game.getTeamTurn(), scratch);
+
+        int coordinate = parseCoordinate(san, end, scratch);
+        if (coordinate != PackedMove.NONE) return coordinate;
+
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean kingside = end == 3;
+            if (end != 3 && end != 5) throw new IllegalArgumentException("Not a move: '" + san + "'");
+            for (int i = 0; i < scratch.size(); i++) {
+                int move = scratch.get(i);
+                int from = PackedMove.from(move);
+                int to = PackedMove.to(move);
+                if (board.pieceIndexAt(from) % 6 == ChessPiece.PieceType.KING.ordinal()
+                        && to - from == (kingside ? 2 : -2)) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Illegal move '" + san + "'");
+        }
+
+        int start = 0;
+        int type = PIECE_LETTERS.indexOf(first);
+        if (type >= 0 && first != 'P') {
+            start = 1;
+        } else {
+            type = ChessPiece.PieceType.PAWN.ordinal();
+        }
+
+        int promotion = 0;
+        int last = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+        if (last >= 0) {
+            promotion = last + 1;
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') end--;
+        }
+        if (end - start < 2) throw new IllegalArgumentException("Not a move: '" + san + "'");
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw new IllegalArgumentException("Not a move: '" + san + "'");
+        }
+        int to = toRank * 8 + toFile;
+
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != '-' && c != ':') {
+                throw new IllegalArgumentException("Not a move: '" + san + "'");
+            }
+        }
+
+        int found = -1;
+        for (int i = 0; i < scratch.size(); i++) {
+            int move = scratch.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || board.pieceIndexAt(from) % 6 != type
+                    || PackedMove.promotion(move) != promotion
+                    || fromFile >= 0 && (from & 7) != fromFile
+                    || fromRank >= 0 && from >> 3 != fromRank) {
+                continue;
+            }
+            if (found >= 0) throw new IllegalArgumentException("Ambiguous move '" + san + "'");
+            found = move;
+        }
+        if (found < 0) throw new IllegalArgumentException("Illegal move '" + san + "'");
+        return found;
+    }
+
+    /**
+     * Reads a coordinate move, from and to square with an optional promotion
+     * letter in either case, matching it against every legal move whatever
+     * piece stands on the from square
+     *
+     * @param end the length of the text without suffixes
+     * @return the matching legal move, or {@link PackedMove#NONE} if the text
+     * is not a coordinate move
+     * @throws IllegalArgumentException if it is one, but no legal move matches
+     */
+    private static int parseCoordinate(CharSequence san, int end, MoveList legal) {
+        if (end < 4 || !isSquare(san, 0)) return PackedMove.NONE;
+        int toIndex = san.charAt(2) == '-' || san.charAt(2) == 'x' ? 3 : 2;
+        int length = toIndex + 2;
+        if (end < length || !isSquare(san, toIndex)) return PackedMove.NONE;
+        int promotion = 0;
+        if (end == length + 1) {
+            int letter = PIECE_LETTERS.indexOf(Character.toUpperCase(san.charAt(length)));
+            if (letter < 1 || letter > 4) return PackedMove.NONE;
+            promotion = letter + 1;
+        } else if (end != length) {
+            return PackedMove.NONE;
+        }
+
+        int from = square(san, 0);
+        int to = square(san, toIndex);
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (PackedMove.from(move) == from && PackedMove.to(move) == to
+                    && PackedMove.promotion(move) == promotion) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("Illegal move '" + san + "'");
+    }
+
+    private static boolean isSquare(CharSequence text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+    }
+
+    private static int square(CharSequence text, int index) {
+        return (text.charAt(index + 1) - '1') * 8 + text.charAt(index) - 'a';
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + (square & 7));
+    }
+
+    private static char rank(int square) {
+        return (char) ('1' + (square >> 3));
+    }
+}
@@ -0,0 +1,112 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class BitboardTests {
+    private static final Gson gson = new Gson();
+
+    @Test
+    public void aggregatesTrackPieces() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(ChessGame.TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(ChessGame.TeamColor.BLACK));
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupied());
+        assertEquals(1L << 4, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+
+        board.addPiece(new ChessPosition(2, 5), null);
+        board.addPiece(new ChessPosition(4, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        assertEquals(0x000000001000EFFFL, board.getOccupancy(ChessGame.TeamColor.WHITE));
+        assertNull(board.getPiece(new ChessPosition(2, 5)));
+    }
+
+    @Test
+    public void replacingPieceClearsOldBitboard() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition position = new ChessPosition(5, 5);
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+
+        assertEquals(0L, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        assertEquals(0L, board.getOccupancy(ChessGame.TeamColor.WHITE));
+        assertEquals(ChessPiece.PieceType.QUEEN, board.getPiece(position).getPieceType());
+    }
+
+    @Test
+    public void kingSquaresFollowAddPiece() {
+        ChessBoard board = new ChessBoard();
+        assertEquals(ChessBoard.EMPTY, board.getKingSquare(ChessGame.TeamColor.WHITE));
+        assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK));
+
+        board.resetBoard();
+        assertEquals(ChessPosition.of(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        assertEquals(60, board.getKingSquare(ChessGame.TeamColor.BLACK));
+
+        ChessPiece whiteKing = board.getPiece(ChessPosition.of(1, 5));
+        board.addPiece(ChessPosition.of(1, 5), null);
+        board.addPiece(ChessPosition.of(2, 6), whiteKing);
+        assertEquals(ChessPosition.of(2, 6), board.getKingPosition(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(2, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        assertEquals(ChessBoard.EMPTY, board.getKingSquare(ChessGame.TeamColor.WHITE));
+        assertEquals(60, new ChessBoard(board).getKingSquare(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = new ChessBoard(board);
+        assertEquals(board, copy);
+
+        copy.addPiece(new ChessPosition(1, 1), null);
+        assertNotEquals(board, copy);
+        assertNotNull(board.getPiece(new ChessPosition(1, 1)));
+    }
+
+    @Test
+    public void gsonRoundTrip() {
+        ChessGame game = new ChessGame();
+        String json = gson.toJson(game);
+        assertTrue(json.contains("\"squares\""));
+
+        ChessGame restored = gson.fromJson(json, ChessGame.class);
+        assertEquals(game, restored);
+    }
+
+    @Test
+    public void readsLegacyJson() {
+        String empty = "[null,null,null,null,null,null,null,null],";
+        String json = "{\"board\":{\"squares\":[[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},"
+                + "null,null,null]," + empty.repeat(6) + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},"
+                + "null,null,null]]},\"teamTurn\":\"BLACK\",\"gameOver\":false}";
+        ChessGame game = gson.fromJson(json, ChessGame.class);
+
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(new ChessPosition(1, 5)));
+        assertEquals(2, Long.bitCount(game.getBoard().getOccupied()));
+    }
+
+    @Test
+    public void rejectsBoardJsonThatIsNotEightByEight() {
+        String row = "[null,null,null,null,null,null,null,null]";
+        String nineSquares = "[null,null,null,null,null,null,null,null,null]";
+        String eightRows = String.join(",", Collections.nCopies(8, row));
+        assertEquals(new ChessBoard(), gson.fromJson("{\"squares\":[" + eightRows + "]}", ChessBoard.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"squares\":[" + eightRows + "," + row + "]}", ChessBoard.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"squares\":[" + row + "]}", ChessBoard.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"squares\":[" + nineSquares + eightRows.substring(row.length()) + "]}",
+                        ChessBoard.class));
+    }
+}
@@ -0,0 +1,76 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+public class BoardSnapshotTests {
+
+    @Test
+    public void snapshotKeepsThePositionItWasTakenAt() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        BoardSnapshot start = game.snapshot();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+
+        assertNotNull(start.getPiece(ChessPosition.of(2, 5)));
+        assertNull(start.getPiece(ChessPosition.of(4, 5)));
+        assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+
+        BoardSnapshot afterMove = game.snapshot();
+        assertNotSame(start, afterMove);
+        assertEquals(ChessGame.TeamColor.BLACK, afterMove.getTeamTurn());
+        assertEquals(game.positionKey(), afterMove.getPositionKey());
+        assertEquals(game.getBoard(), afterMove.toBoard());
+        assertEquals(game, afterMove.toGame());
+    }
+
+    @Test
+    public void packedMovesPublishOnlyWhenAsked() {
+        ChessGame game = new ChessGame();
+        BoardSnapshot published = game.snapshot();
+        MoveList moves = new MoveList();
+        game.legalMoves(ChessGame.TeamColor.WHITE, moves);
+
+        game.makeMove(moves.get(0));
+        assertSame(published, game.snapshot());
+        assertEquals(game.positionKey(), game.publishSnapshot().getPositionKey());
+
+        game.unmakeMove();
+        assertNotEquals(game.positionKey(), game.snapshot().getPositionKey());
+    }
+
+    @Test
+    public void gameOverSharesThePosition() {
+        ChessGame game = new ChessGame();
+        BoardSnapshot before = game.snapshot();
+        game.setGameOver(true);
+        BoardSnapshot after = game.snapshot();
+        assertTrue(after.isGameOver());
+        assertFalse(before.isGameOver());
+        assertEquals(before.getPositionKey(), after.getPositionKey());
+    }
+
+    @Test
+    public void snapshotGameSerializesLikeTheOriginal() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+
+        Gson gson = new Gson();
+        ChessGame restored = gson.fromJson(gson.toJson(game.snapshot().toGame()), ChessGame.class);
+        assertEquals(game, restored);
+        assertEquals(game.getHalfmoveClock(), restored.getHalfmoveClock());
+    }
+
+    @Test
+    public void gsonReadGameSnapshotsItsOwnPosition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+
+        Gson gson = new Gson();
+        ChessGame restored = gson.fromJson(gson.toJson(game), ChessGame.class);
+        assertEquals(game.positionKey(), restored.snapshot().getPositionKey());
+        assertEquals(ChessGame.TeamColor.BLACK, restored.snapshot().getTeamTurn());
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ChessGameCodecTests {
+
+    @Test
+    public void startingPositionIsSmall() {
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        // 15 header bytes, 16 for 32 pieces and an empty history count
+        assertEquals(33, bytes.length);
+        assertEquals(new ChessGame(), ChessGameCodec.decode(bytes));
+    }
+
+    @Test
+    public void randomGamesRoundTrip() {
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int trial = 0; trial < 50; trial++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+
+                ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+                assertEquals(game, decoded);
+                assertEquals(game.positionKey(), decoded.positionKey());
+                assertEquals(game.getHalfmoveClock(), decoded.getHalfmoveClock());
+                assertEquals(game.getFullmoveNumber(), decoded.getFullmoveNumber());
+                assertEquals(game.isThreefoldRepetition(), decoded.isThreefoldRepetition());
+            }
+        }
+    }
+
+    @Test
+    public void repetitionAndGameOverSurvive() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            game.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+        }
+        game.setGameOver(true);
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        assertTrue(decoded.isThreefoldRepetition());
+        assertTrue(decoded.isGameOver());
+        assertEquals(0, decoded.undoDepth());
+    }
+
+    @Test
+    public void rejectsBadInput() {
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 3;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(otherVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> ChessGameCodec.decode(Arrays.copyOf(bytes, 20)));
+    }
+}
@@ -0,0 +1,111 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+public class DrawTests {
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void knightShuffleRepeatsThreeTimes() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            assertFalse(game.isThreefoldRepetition());
+            shuffle(game);
+        }
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus(game.getTeamTurn()));
+
+        game.unmakeMove();
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    public void repetitionSurvivesJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffle(game);
+        game.makeMove(move(2, 5, 4, 5));
+        shuffleBlackFirst(game);
+        shuffleBlackFirst(game);
+        assertTrue(game.isThreefoldRepetition());
+
+        ChessGame restored = GSON.fromJson(GSON.toJson(game), ChessGame.class);
+        assertTrue(restored.isThreefoldRepetition());
+        assertEquals(0, restored.getHalfmoveClock() % 4);
+    }
+
+    @Test
+    public void halfmoveClockResetsAndCallsFiftyMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(1, 7, 3, 6));
+        assertEquals(1, game.getHalfmoveClock());
+        game.makeMove(move(7, 5, 5, 5));
+        assertEquals(0, game.getHalfmoveClock());
+        game.unmakeMove();
+        assertEquals(1, game.getHalfmoveClock());
+
+        JsonObject json = GSON.toJsonTree(game).getAsJsonObject();
+        json.addProperty("halfmoveClock", 99);
+        ChessGame late = GSON.fromJson(json, ChessGame.class);
+        assertFalse(late.isFiftyMoveRule());
+        late.makeMove(move(8, 2, 6, 3));
+        assertTrue(late.isFiftyMoveRule());
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, late.evaluateStatus(late.getTeamTurn()));
+    }
+
+    @Test
+    public void insufficientMaterial() {
+        assertTrue(withPieces().isInsufficientMaterial());
+        assertTrue(withPieces("N", 3, 3).isInsufficientMaterial());
+        assertTrue(withPieces("B", 1, 3, "b", 8, 6).isInsufficientMaterial());
+        assertFalse(withPieces("B", 1, 3, "b", 8, 3).isInsufficientMaterial());
+        assertFalse(withPieces("N", 3, 3, "n", 6, 6).isInsufficientMaterial());
+        assertFalse(withPieces("P", 2, 1).isInsufficientMaterial());
+        assertFalse(new ChessGame().isInsufficientMaterial());
+    }
+
+    private static void shuffle(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(6, 6, 8, 7));
+    }
+
+    private static void shuffleBlackFirst(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(6, 6, 8, 7));
+        game.makeMove(move(3, 6, 1, 7));
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return ChessMove.of(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    /**
+     * Two kings on e1/e8 plus pieces given as letter, row, column triples
+     * (upper case for white)
+     */
+    private static ChessGame withPieces(Object... pieces) {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        for (int i = 0; i < pieces.length; i += 3) {
+            String letter = (String) pieces[i];
+            ChessGame.TeamColor color = Character.isUpperCase(letter.charAt(0))
+                    ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            ChessPiece.PieceType type = switch (letter.toLowerCase()) {
+                case "n" -> ChessPiece.PieceType.KNIGHT;
+                case "b" -> ChessPiece.PieceType.BISHOP;
+                default -> ChessPiece.PieceType.PAWN;
+            };
+            board.addPiece(ChessPosition.of((Integer) pieces[i + 1], (Integer) pieces[i + 2]), ChessPiece.of(color, type));
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        return game;
+    }
+}
@@ -0,0 +1,84 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class FenTests {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    public void startingPosition() {
+        assertEquals(START, new ChessGame().toFen());
+        assertEquals(new ChessGame(), ChessGame.fromFen(START));
+    }
+
+    @Test
+    public void movesUpdateEveryField() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        assertEquals(fen, game.toFen());
+
+        ChessGame parsed = ChessGame.fromFen(fen);
+        assertEquals(game, parsed);
+        assertEquals(game.positionKey(), parsed.positionKey());
+        assertEquals(3, parsed.getFullmoveNumber());
+
+        game.unmakeMove();
+        assertEquals(2, game.getFullmoveNumber());
+    }
+
+    @Test
+    public void randomGamesRoundTrip() {
+        Random random = new Random(11);
+        MoveList moves = new MoveList();
+        for (int trial = 0; trial < 30; trial++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+
+                String fen = game.toFen();
+                ChessGame parsed = ChessGame.fromFen(fen);
+                assertEquals(game, parsed, fen);
+                assertEquals(fen, parsed.toFen());
+            }
+        }
+    }
+
+    @Test
+    public void looseFieldsAreNormalized() {
+        // no pawn can take on e3, castling rights without their rook, no counters
+        ChessGame game = ChessGame.fromFen("4k2r/8/8/8/4P3/8/8/4K3 b KQkq e3");
+        assertEquals(ChessBoard.EMPTY, game.getEnPassantSquare());
+        assertEquals(CastlingRights.BLACK_KINGSIDE, game.getCastlingRights());
+        assertEquals("4k2r/8/8/8/4P3/8/8/4K3 b k - 0 1", game.toFen());
+    }
+
+    @Test
+    public void rejectsMalformedText() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : bad) {
+            assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+    private static final Gson gson = new Gson();
+
+    @Test
+    public void factoriesReturnSharedInstances() {
+        assertSame(ChessPosition.of(4, 5), ChessPosition.of(4, 5));
+        assertSame(ChessPosition.of(4, 5), ChessBoard.positionOf(28));
+        assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        assertSame(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN),
+                ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN));
+    }
+
+    @Test
+    public void factoriesEqualConstructedInstances() {
+        assertEquals(new ChessPosition(2, 3), ChessPosition.of(2, 3));
+        assertEquals(new ChessPosition(2, 3).hashCode(), ChessPosition.of(2, 3).hashCode());
+        assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        assertNotSame(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), ChessPiece.PieceType.KNIGHT));
+    }
+
+    @Test
+    public void offBoardPositionsAreStillCreated() {
+        ChessPosition position = ChessPosition.of(0, 9);
+        assertEquals(0, position.getRow());
+        assertEquals(9, position.getColumn());
+    }
+
+    @Test
+    public void gsonResolvesCanonicalInstances() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.ROOK);
+        String json = gson.toJson(move);
+        assertEquals("{\"startPosition\":{\"row\":7,\"col\":2},\"endPosition\":{\"row\":8,\"col\":2},"
+                + "\"promotionPiece\":\"ROOK\"}", json);
+
+        ChessMove read = gson.fromJson(json, ChessMove.class);
+        assertSame(ChessMove.of(ChessPosition.of(7, 2), ChessPosition.of(8, 2), ChessPiece.PieceType.ROOK), read);
+        assertSame(ChessPosition.of(7, 2), read.getStartPosition());
+
+        ChessGame game = gson.fromJson(gson.toJson(new ChessGame()), ChessGame.class);
+        assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(ChessPosition.of(1, 5)));
+    }
+
+    @Test
+    public void offBoardMovesDoNotFoldOntoBoardSquares() {
+        // (3, 0) and (4, 0) flatten to the square indices of h2 and h3
+        ChessMove offBoard = ChessMove.of(ChessPosition.of(3, 0), ChessPosition.of(4, 0), null);
+        for (int start = 0; start < ChessBoard.NUM_SQUARES; start++) {
+            for (int end = 0; end < ChessBoard.NUM_SQUARES; end++) {
+                assertNotEquals(ChessMove.of(ChessPosition.ofSquare(start), ChessPosition.ofSquare(end), null),
+                        offBoard);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(offBoard));
+        assertEquals(new ChessGame().toFen(), game.toFen());
+    }
+
+    @Test
+    public void positionJsonMustBeOnTheBoard() {
+        assertSame(ChessPosition.of(3, 7), gson.fromJson("{\"row\":3,\"col\":7}", ChessPosition.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"row\":3}", ChessPosition.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"col\":3}", ChessPosition.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"row\":3,\"col\":0}", ChessPosition.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"row\":9,\"col\":1}", ChessPosition.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson(
+                "{\"startPosition\":{\"row\":3,\"col\":0},\"endPosition\":{\"row\":4,\"col\":0}}",
+                ChessMove.class));
+    }
+}
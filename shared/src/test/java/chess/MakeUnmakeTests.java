@@ -0,0 +1,65 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MakeUnmakeTests {
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void unmakeRestoresEveryPosition() {
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+        for (int trial = 0; trial < 100; trial++) {
+            ChessGame game = new ChessGame();
+            List<ChessGame> history = new ArrayList<>();
+            List<String> boards = new ArrayList<>();
+            for (int ply = 0; ply < 80; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                history.add(copyOf(game));
+                boards.add(game.getBoard().toString());
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+
+            assertEquals(history.size(), game.undoDepth());
+            for (int ply = history.size() - 1; ply >= 0; ply--) {
+                game.unmakeMove();
+                assertEquals(history.get(ply), game);
+                assertEquals(boards.get(ply), game.getBoard().toString());
+            }
+        }
+    }
+
+    @Test
+    public void unmakeUndoesPromotionCapture() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(7, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+        ChessBoard before = new ChessBoard(board);
+
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 2), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT));
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(8, 1)));
+
+        game.unmakeMove();
+        assertEquals(before, game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    private static ChessGame copyOf(ChessGame game) {
+        return GSON.fromJson(GSON.toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+public class MoveCacheTests {
+
+    @Test
+    public void repeatedQueriesHitTheCache() {
+        ChessGame game = new ChessGame();
+        game.validMoves(ChessPosition.of(2, 5));
+        assertEquals(1, game.getMoveCacheMisses());
+
+        game.validMoves(ChessPosition.of(1, 2));
+        game.validMoves(ChessPosition.of(2, 5));
+        assertTrue(game.isLegal(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null)));
+        assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+        MoveList all = new MoveList();
+        game.legalMoves(ChessGame.TeamColor.WHITE, all);
+        assertEquals(20, all.size());
+        assertEquals(1, game.getMoveCacheMisses());
+        assertEquals(5, game.getMoveCacheHits());
+    }
+
+    @Test
+    public void cacheIsDroppedWhenThePositionChanges() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.validMoves(ChessPosition.of(2, 5));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        assertEquals(20, movesOfTeamToMove(game).size());
+        assertEquals(2, game.getMoveCacheMisses());
+
+        game.unmakeMove();
+        assertEquals(20, movesOfTeamToMove(game).size());
+        assertEquals(3, game.getMoveCacheMisses());
+
+        // editing the board in place changes the position key, so it's noticed too
+        game.getBoard().addPiece(ChessPosition.of(2, 4), null);
+        Collection<ChessMove> queenMoves = game.validMoves(ChessPosition.of(1, 4));
+        assertEquals(4, game.getMoveCacheMisses());
+        assertEquals(6, queenMoves.size());
+    }
+
+    @Test
+    public void otherTeamIsNotCached() {
+        ChessGame game = new ChessGame();
+        assertEquals(2, game.validMoves(ChessPosition.of(8, 2)).size());
+        assertEquals(0, game.getMoveCacheMisses());
+        assertEquals(0, game.getMoveCacheHits());
+    }
+
+    private static Collection<ChessMove> movesOfTeamToMove(ChessGame game) {
+        Collection<ChessMove> moves = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.addAll(game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+}
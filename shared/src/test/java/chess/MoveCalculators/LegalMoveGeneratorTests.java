@@ -0,0 +1,169 @@
+package chess.MoveCalculators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class LegalMoveGeneratorTests {
+
+    @Test
+    public void matchesPlayAndCheckOverRandomGames() {
+        Random random = new Random(240);
+        MoveList legal = new MoveList();
+        for (int game = 0; game < 200; game++) {
+            ChessBoard board = new ChessBoard();
+            board.resetBoard();
+            ChessGame.TeamColor team = ChessGame.TeamColor.WHITE;
+            for (int ply = 0; ply < 120; ply++) {
+                legal.clear();
+                LegalMoveGenerator.generateMoves(board, team, legal);
+                assertEquals(bruteForce(board, team), asSet(legal), board.toString());
+                assertEquals(!legal.isEmpty(), LegalMoveGenerator.hasLegalMove(board, team));
+                if (legal.isEmpty()) break;
+
+                int move = legal.get(random.nextInt(legal.size()));
+                apply(board, move);
+                team = team.opponent();
+            }
+        }
+    }
+
+    @Test
+    public void hasLegalMoveAgreesOnSparseBoards() {
+        Random random = new Random(5);
+        ChessPiece.PieceType[] types = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN};
+        MoveList legal = new MoveList();
+        for (int trial = 0; trial < 20000; trial++) {
+            ChessBoard board = new ChessBoard();
+            board.setPiece(random.nextInt(64), ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            board.setPiece(random.nextInt(64), ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+            for (int i = 0; i < 4; i++) {
+                int square = 8 + random.nextInt(48);
+                if (board.pieceIndexAt(square) != ChessBoard.EMPTY) continue;
+                ChessGame.TeamColor color = ChessGame.TeamColor.values()[random.nextInt(2)];
+                board.setPiece(square, ChessBoard.pieceIndex(color, types[random.nextInt(types.length)]));
+            }
+            for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+                if (board.getKingSquare(team) == ChessBoard.EMPTY) continue;
+                legal.clear();
+                LegalMoveGenerator.generateMoves(board, team, legal);
+                assertEquals(!legal.isEmpty(), LegalMoveGenerator.hasLegalMove(board, team), board.toString());
+            }
+        }
+    }
+
+    @Test
+    public void isLegalAgreesWithGenerator() {
+        Random random = new Random(13);
+        MoveList legal = new MoveList();
+        for (int game = 0; game < 10; game++) {
+            ChessBoard board = new ChessBoard();
+            board.resetBoard();
+            ChessGame.TeamColor team = ChessGame.TeamColor.WHITE;
+            for (int ply = 0; ply < 100; ply++) {
+                legal.clear();
+                LegalMoveGenerator.generateMoves(board, team, legal);
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < legal.size(); i++) {
+                    expected.add(legal.get(i) & PackedMove.MOVE_MASK);
+                }
+                for (int from : squaresOf(board.getOccupancy(team))) {
+                    for (int to = 0; to < 64; to++) {
+                        for (int promotion = 0; promotion <= 6; promotion++) {
+                            int move = PackedMove.encode(from, to, promotion, 0);
+                            assertEquals(expected.contains(move), LegalMoveGenerator.isLegal(board, move));
+                        }
+                    }
+                }
+                if (legal.isEmpty()) break;
+
+                apply(board, legal.get(random.nextInt(legal.size())));
+                team = team.opponent();
+            }
+        }
+    }
+
+    @Test
+    public void pinnedPieceSlidesAlongPin() {
+        ChessBoard board = new ChessBoard();
+        board.setPiece(0, ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.setPiece(18, ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        board.setPiece(45, ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.setPiece(63, ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generatePieceMoves(board, 18, moves);
+        Set<Integer> targets = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            targets.add(PackedMove.to(moves.get(i)));
+        }
+        assertEquals(Set.of(9, 27, 36, 45), targets);
+    }
+
+    @Test
+    public void squareAttackStopsAtFirstBlocker() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(4, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(5, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        game.setBoard(board);
+
+        assertTrue(game.isSquareAttacked(ChessPosition.of(4, 1), ChessGame.TeamColor.WHITE));
+        assertFalse(game.isSquareAttacked(ChessPosition.of(6, 1), ChessGame.TeamColor.WHITE));
+        assertTrue(game.isSquareAttacked(ChessPosition.of(1, 8), ChessGame.TeamColor.WHITE));
+        assertTrue(game.isSquareAttacked(ChessPosition.of(3, 2), ChessGame.TeamColor.BLACK));
+        assertTrue(game.isSquareAttacked(ChessPosition.of(3, 3), ChessGame.TeamColor.BLACK));
+        assertFalse(game.isSquareAttacked(ChessPosition.of(5, 1), ChessGame.TeamColor.BLACK));
+    }
+
+    private static Set<Integer> bruteForce(ChessBoard board, ChessGame.TeamColor team) {
+        MoveList pseudo = new MoveList();
+        MoveGenerator.generateMoves(board, team, pseudo);
+        Set<Integer> legal = new HashSet<>();
+        for (int i = 0; i < pseudo.size(); i++) {
+            ChessBoard copy = new ChessBoard(board);
+            apply(copy, pseudo.get(i));
+            int king = copy.getKingSquare(team);
+            if (LegalMoveGenerator.attackersTo(copy, king, team.opponent(), copy.getOccupied()) == 0) {
+                legal.add(pseudo.get(i));
+            }
+        }
+        return legal;
+    }
+
+    private static int[] squaresOf(long bitboard) {
+        int[] squares = new int[Long.bitCount(bitboard)];
+        for (int i = 0; bitboard != 0; bitboard &= bitboard - 1) {
+            squares[i++] = Long.numberOfTrailingZeros(bitboard);
+        }
+        return squares;
+    }
+
+    private static Set<Integer> asSet(MoveList moves) {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            assertTrue(set.add(moves.get(i)), "duplicate move");
+        }
+        return set;
+    }
+
+    private static void apply(ChessBoard board, int move) {
+        int moving = board.pieceIndexAt(PackedMove.from(move));
+        ChessPiece.PieceType promotion = PackedMove.promotionType(move);
+        board.clearSquare(PackedMove.from(move));
+        board.setPiece(PackedMove.to(move), promotion == null
+                ? moving : ChessBoard.pieceIndex(ChessBoard.pieceFor(moving).getTeamColor(), promotion));
+    }
+}
@@ -0,0 +1,47 @@
+package chess.MoveCalculators;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class SlidingAttacksTests {
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, 1}, {1, 1}, {1, -1}, {-1, -1}};
+
+    @Test
+    public void magicLookupMatchesRayWalk() {
+        Random random = new Random(240);
+        for (int trial = 0; trial < 2000; trial++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertEquals(walk(square, occupied, ROOK_DIRECTIONS), SlidingAttacks.rookAttacks(square, occupied));
+                assertEquals(walk(square, occupied, BISHOP_DIRECTIONS), SlidingAttacks.bishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void emptyBoardReach() {
+        // rook on d4 sees its whole rank and file, bishop on a1 the long diagonal
+        assertEquals(14, Long.bitCount(SlidingAttacks.rookAttacks(27, 0L)));
+        assertEquals(0x8040201008040200L, SlidingAttacks.bishopAttacks(0, 0L));
+        assertEquals(27, Long.bitCount(SlidingAttacks.queenAttacks(27, 0L)));
+    }
+
+    private static long walk(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int x = (square & 7) + dir[0];
+            int y = (square >>> 3) + dir[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                long bit = 1L << (y * 8 + x);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                x += dir[0];
+                y += dir[1];
+            }
+        }
+        return attacks;
+    }
+}
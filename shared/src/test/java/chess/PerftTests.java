@@ -0,0 +1,68 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+    /** Keeps each position's deepest check well under a second. */
+    private static final long NODE_LIMIT = 200_000;
+
+    @Test
+    public void standardPositionsMatchPublishedCounts() {
+        for (Perft.Position position : Perft.Position.values()) {
+            ChessGame game = position.game();
+            String before = game.toFen();
+            for (int depth = 1; depth <= position.maxDepth() && position.expected(depth) <= NODE_LIMIT; depth++) {
+                assertEquals(position.expected(depth), Perft.count(game, depth), position + " depth " + depth);
+            }
+            assertEquals(before, game.toFen());
+        }
+    }
+
+    @Test
+    public void depthZeroIsOneNode() {
+        assertEquals(1, Perft.count(new ChessGame(), 0));
+    }
+
+    @Test
+    public void parallelCountsMatchPublishedCounts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Perft.Position position : Perft.Position.values()) {
+                ChessGame game = position.game();
+                String before = game.toFen();
+                for (int depth = 1; depth <= position.maxDepth() && position.expected(depth) <= NODE_LIMIT; depth++) {
+                    assertEquals(position.expected(depth), Perft.count(game, depth, pool), position + " depth " + depth);
+                }
+                assertEquals(before, game.toFen());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void deepParallelCountsSplitBelowTheRoot() {
+        // few enough pieces that a count deep enough to be split stays small
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        assertEquals(Perft.count(game, 7), Perft.count(game, 7, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void divideSplitsTheCountByRootMove() {
+        ChessGame game = Perft.Position.KIWIPETE.game();
+        Map<ChessMove, Long> counts = Perft.divide(game, 3, ForkJoinPool.commonPool());
+
+        assertEquals(48, counts.size());
+        assertEquals(Perft.Position.KIWIPETE.expected(3), counts.values().stream().mapToLong(Long::longValue).sum());
+        for (Map.Entry<ChessMove, Long> entry : counts.entrySet()) {
+            ChessGame afterMove = Perft.Position.KIWIPETE.game();
+            afterMove.makeMove(PackedMove.encode(entry.getKey()));
+            assertEquals(Perft.count(afterMove, 2), entry.getValue(), entry.getKey().toString());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SpecialMoveTests {
+
+    @Test
+    public void perftKiwipete() {
+        ChessGame game = gameFrom("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+                ChessGame.TeamColor.WHITE);
+        assertEquals(CastlingRights.ALL, game.getCastlingRights());
+        assertEquals(48, perft(game, 1));
+        assertEquals(2039, perft(game, 2));
+        assertEquals(97862, perft(game, 3));
+    }
+
+    @Test
+    public void perftEnPassantPins() {
+        ChessGame game = gameFrom("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", ChessGame.TeamColor.WHITE);
+        assertEquals(CastlingRights.NONE, game.getCastlingRights());
+        assertEquals(43238, perft(game, 4));
+    }
+
+    @Test
+    public void castlingMovesRookAndSpendsRights() throws InvalidMoveException {
+        ChessGame game = gameFrom("r3k2r/8/8/8/8/8/8/R3K2R", ChessGame.TeamColor.WHITE);
+        ChessMove castle = ChessMove.of(ChessPosition.of(1, 5), ChessPosition.of(1, 7), null);
+        assertTrue(game.validMoves(ChessPosition.of(1, 5)).contains(castle));
+
+        game.makeMove(castle);
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 6)));
+        assertNull(game.getBoard().getPiece(ChessPosition.of(1, 8)));
+        assertEquals(CastlingRights.BLACK_KINGSIDE | CastlingRights.BLACK_QUEENSIDE, game.getCastlingRights());
+
+        // a rook that leaves and comes back can't castle any more
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 1), ChessPosition.of(7, 1), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(2, 1), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 1), ChessPosition.of(1, 1), null));
+        assertFalse(game.validMoves(ChessPosition.of(8, 5))
+                .contains(ChessMove.of(ChessPosition.of(8, 5), ChessPosition.of(8, 3), null)));
+        assertEquals(CastlingRights.BLACK_KINGSIDE, game.getCastlingRights());
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        assertEquals(gameFrom("r3k2r/8/8/8/8/8/8/R3K2R", ChessGame.TeamColor.WHITE), game);
+    }
+
+    @Test
+    public void castlingThroughAttackedSquareIsIllegal() {
+        ChessGame game = gameFrom("4k3/8/8/8/8/8/5r2/R3K2R", ChessGame.TeamColor.WHITE);
+        ChessMove kingside = ChessMove.of(ChessPosition.of(1, 5), ChessPosition.of(1, 7), null);
+        ChessMove queenside = ChessMove.of(ChessPosition.of(1, 5), ChessPosition.of(1, 3), null);
+        assertFalse(game.isLegal(kingside));
+        assertTrue(game.isLegal(queenside));
+    }
+
+    @Test
+    public void enPassantOnlyRightAfterDoublePush() throws InvalidMoveException {
+        ChessGame game = gameFrom("4k3/3p4/8/4P3/8/8/8/4K3", ChessGame.TeamColor.BLACK);
+        long keyBefore = game.positionKey();
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        assertEquals(ChessBoard.squareIndex(ChessPosition.of(6, 4)), game.getEnPassantSquare());
+
+        ChessMove capture = ChessMove.of(ChessPosition.of(5, 5), ChessPosition.of(6, 4), null);
+        assertTrue(game.validMoves(ChessPosition.of(5, 5)).contains(capture));
+        game.makeMove(capture);
+        assertNull(game.getBoard().getPiece(ChessPosition.of(5, 4)));
+
+        game.unmakeMove();
+        game.unmakeMove();
+        assertEquals(keyBefore, game.positionKey());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 5), ChessPosition.of(1, 4), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 5), ChessPosition.of(8, 4), null));
+        assertFalse(game.isLegal(capture));
+    }
+
+    private static long perft(ChessGame game, int depth) {
+        MoveList moves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), moves);
+        assertEquals(!moves.isEmpty(), game.hasAnyLegalMove(game.getTeamTurn()));
+        if (depth == 1) return moves.size();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Builds a game from the piece-placement field of a FEN string
+     */
+    private static ChessGame gameFrom(String placement, ChessGame.TeamColor turn) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (char c : placement.toCharArray()) {
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                ChessGame.TeamColor color = Character.isUpperCase(c)
+                        ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+                    case 'k' -> ChessPiece.PieceType.KING;
+                    case 'q' -> ChessPiece.PieceType.QUEEN;
+                    case 'b' -> ChessPiece.PieceType.BISHOP;
+                    case 'n' -> ChessPiece.PieceType.KNIGHT;
+                    case 'r' -> ChessPiece.PieceType.ROOK;
+                    default -> ChessPiece.PieceType.PAWN;
+                };
+                board.addPiece(ChessPosition.of(row, col++), ChessPiece.of(color, type));
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
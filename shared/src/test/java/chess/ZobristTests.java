@@ -0,0 +1,56 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    public void incrementalKeyMatchesFullHash() {
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        ChessGame game = new ChessGame();
+        long startKey = game.positionKey();
+        for (int ply = 0; ply < 200; ply++) {
+            moves.clear();
+            game.legalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) break;
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+            assertEquals(Zobrist.computePieceKey(game.getBoard()), game.getBoard().getZobristKey());
+        }
+        while (game.undoDepth() > 0) {
+            game.unmakeMove();
+        }
+        assertEquals(startKey, game.positionKey());
+    }
+
+    @Test
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(move("g1", "f3"));
+        first.makeMove(move("g8", "f6"));
+        first.makeMove(move("b1", "c3"));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(move("b1", "c3"));
+        second.makeMove(move("g8", "f6"));
+        second.makeMove(move("g1", "f3"));
+
+        assertEquals(first.positionKey(), second.positionKey());
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.setTeamTurn(ChessGame.TeamColor.WHITE);
+        assertNotEquals(first.positionKey(), second.positionKey());
+    }
+
+    private static ChessMove move(String from, String to) {
+        return ChessMove.of(position(from), position(to), null);
+    }
+
+    private static ChessPosition position(String square) {
+        return ChessPosition.of(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+}
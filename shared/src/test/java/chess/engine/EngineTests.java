@@ -0,0 +1,130 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import chess.Perft;
+import chess.notation.San;
+import org.junit.jupiter.api.Test;
+
+public class EngineTests {
+
+    private static String bestMove(String fen, SearchLimits limits) {
+        ChessGame game = ChessGame.fromFen(fen);
+        SearchResult result = new Engine().search(game, limits);
+        return San.toSan(game, result.move());
+    }
+
+    @Test
+    public void findsMateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.toDepth(3));
+
+        assertEquals("Ra8#", San.toSan(game, result.move()));
+        assertTrue(result.isMate());
+        assertEquals(1, result.movesToMate());
+    }
+
+    @Test
+    public void findsMateInTwo() {
+        ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/8/R1R3K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.toDepth(5));
+
+        assertEquals(2, result.movesToMate());
+        game.makeMove(result.move());
+        SearchResult defence = new Engine().search(game, SearchLimits.toDepth(4));
+        assertEquals(-1, defence.movesToMate());
+    }
+
+    @Test
+    public void winsAHangingQueen() {
+        assertEquals("Rxd5", bestMove("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", SearchLimits.toDepth(4)));
+    }
+
+    @Test
+    public void quiescenceSeesTheRecapture() {
+        // at depth 1 only quiescence search shows that cxd5 wins the queen back
+        String move = bestMove("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", SearchLimits.toDepth(1));
+        assertNotEquals("Qxd5", move);
+    }
+
+    @Test
+    public void noMoveWhenMated() {
+        ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 1 1");
+        SearchResult result = new Engine().search(game, SearchLimits.toDepth(3));
+
+        assertEquals(PackedMove.NONE, result.move());
+        assertNull(result.bestMove());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    public void searchLeavesTheGameAsItWas() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        game.makeMove(San.parse(game, "a3"));
+        String fen = game.toFen();
+
+        new Engine().search(game, SearchLimits.toDepth(3));
+        assertEquals(fen, game.toFen());
+        assertEquals(1, game.undoDepth());
+    }
+
+    @Test
+    public void stopsAtTheNodeLimit() {
+        SearchResult result = new Engine().search(new ChessGame(), SearchLimits.forNodes(20_000));
+
+        assertTrue(result.nodes() <= 20_000);
+        assertTrue(result.depth() >= 1);
+        assertNotEquals(PackedMove.NONE, result.move());
+    }
+
+    @Test
+    public void stopsAtTheTimeLimit() {
+        long start = System.nanoTime();
+        SearchResult result = new Engine().search(new ChessGame(), SearchLimits.forTime(100));
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertNotEquals(PackedMove.NONE, result.move());
+    }
+
+    @Test
+    public void seesARepetitionDraw() {
+        // white is lost on material but can shuffle its rook for a draw by repetition
+        ChessGame game = ChessGame.fromFen("6k1/8/8/8/8/8/1q6/R5K1 w - - 0 1");
+        for (String move : new String[]{"Ra8+", "Kg7", "Ra7+", "Kg8", "Ra8+", "Kg7", "Ra7+", "Kg8"}) {
+            game.makeMove(San.parse(game, move));
+        }
+        SearchResult result = new Engine().search(game, SearchLimits.toDepth(4));
+        assertEquals("Ra8+", San.toSan(game, result.move()));
+        assertEquals(0, result.score());
+    }
+
+    @Test
+    public void evaluationIsSymmetric() {
+        assertEquals(0, Evaluator.evaluate(new ChessGame()));
+        int white = Evaluator.evaluate(ChessGame.fromFen("4k3/pp6/8/8/8/8/PPP5/2N1K3 w - - 0 1"));
+        int black = Evaluator.evaluate(ChessGame.fromFen("2n1k3/ppp5/8/8/8/8/PP6/4K3 b - - 0 1"));
+        assertEquals(white, black);
+        assertTrue(white > 0);
+    }
+
+    @Test
+    public void helperThreadsAgreeOnAForcedMate() {
+        ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/8/R1R3K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.toDepth(5), 4);
+
+        assertEquals(2, result.movesToMate());
+        assertEquals("7k/8/8/8/8/8/8/R1R3K1 w - - 0 1", game.toFen());
+    }
+
+    @Test
+    public void helperNodesAreCounted() {
+        Engine engine = new Engine();
+        SearchResult result = engine.search(Perft.Position.KIWIPETE.game(), SearchLimits.forNodes(50_000), 3);
+
+        assertTrue(result.nodes() >= 50_000, "stopped at " + result.nodes());
+        assertTrue(result.depth() >= 1);
+        assertTrue(Perft.Position.KIWIPETE.game().isLegal(result.bestMove()));
+    }
+}
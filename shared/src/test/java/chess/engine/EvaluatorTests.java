@@ -0,0 +1,87 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.MoveList;
+import chess.Perft;
+import chess.PieceSquareTables;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluatorTests {
+
+    @Test
+    public void runningTotalsMatchARescanThroughRandomGames() {
+        Random random = new Random(25);
+        MoveList moves = new MoveList();
+        for (Perft.Position position : Perft.Position.values()) {
+            ChessGame game = position.game();
+            for (int playout = 0; playout < 20; playout++) {
+                int played = 0;
+                for (; played < 120; played++) {
+                    moves.clear();
+                    game.legalMoves(game.getTeamTurn(), moves);
+                    if (moves.isEmpty()) break;
+                    game.makeMove(moves.get(random.nextInt(moves.size())));
+                    assertEquals(Evaluator.rescan(game), Evaluator.evaluate(game), game.toFen());
+                }
+                for (; played > 0; played--) {
+                    game.unmakeMove();
+                    assertEquals(Evaluator.rescan(game), Evaluator.evaluate(game), game.toFen());
+                }
+            }
+            assertEquals(position.game().getBoard().getSquareScore(), game.getBoard().getSquareScore());
+        }
+    }
+
+    @Test
+    public void copiesAndParsedBoardsCarryTheTotals() {
+        ChessGame game = Perft.Position.KIWIPETE.game();
+        ChessBoard copy = new ChessBoard(game.getBoard());
+        assertEquals(game.getBoard().getSquareScore(), copy.getSquareScore());
+        assertEquals(game.getBoard().getPhase(), copy.getPhase());
+        assertEquals(Evaluator.rescan(game), Evaluator.evaluate(game.copy()));
+
+        ChessBoard reset = new ChessBoard(game.getBoard());
+        reset.resetBoard();
+        assertEquals(new ChessGame().getBoard().getSquareScore(), reset.getSquareScore());
+    }
+
+    @Test
+    public void phaseRunsFromAllPiecesToBareKings() {
+        assertEquals(PieceSquareTables.MAX_PHASE, new ChessGame().getBoard().getPhase());
+        assertEquals(0, ChessGame.fromFen("4k3/pppp4/8/8/8/8/PPPP4/4K3 w - - 0 1").getBoard().getPhase());
+    }
+
+    @Test
+    public void endgameTablesTakeOverAsPiecesComeOff() {
+        // a centralized king is a liability with the pieces on and an asset without them
+        int centralWithPieces = Evaluator.evaluate(ChessGame.fromFen("rnbqkbnr/8/8/8/3K4/8/8/RNBQ1BNR w - - 0 1"));
+        int homeWithPieces = Evaluator.evaluate(ChessGame.fromFen("rnbqkbnr/8/8/8/8/8/8/RNBQKBNR w - - 0 1"));
+        int centralAlone = Evaluator.evaluate(ChessGame.fromFen("4k3/8/8/8/3K4/8/8/8 w - - 0 1"));
+        int homeAlone = Evaluator.evaluate(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertTrue(centralWithPieces < homeWithPieces);
+        assertTrue(centralAlone > homeAlone);
+    }
+
+    @Test
+    public void packedScoresSplitBackApart() {
+        int sum = 0;
+        int midgame = 0;
+        int endgame = 0;
+        Random random = new Random(7);
+        for (int i = 0; i < 40; i++) {
+            int index = random.nextInt(ChessBoard.NUM_PIECE_INDICES);
+            int square = random.nextInt(ChessBoard.NUM_SQUARES);
+            int packed = PieceSquareTables.packedScore(index, square);
+            sum += packed;
+            midgame += PieceSquareTables.midgame(packed);
+            endgame += PieceSquareTables.endgame(packed);
+            assertEquals(midgame, PieceSquareTables.midgame(sum));
+            assertEquals(endgame, PieceSquareTables.endgame(sum));
+        }
+    }
+}
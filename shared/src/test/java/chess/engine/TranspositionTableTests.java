@@ -0,0 +1,71 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTests {
+
+    @Test
+    public void storedEntriesReadBack() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(0x1234_5678_9ABC_DEF0L, 0x5_1234, -1234, 7, TranspositionTable.LOWER);
+
+        long data = table.probe(0x1234_5678_9ABC_DEF0L);
+        assertEquals(0x5_1234, TranspositionTable.move(data));
+        assertEquals(-1234, TranspositionTable.score(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(0, table.probe(0x1234_5678_9ABC_DEF1L));
+    }
+
+    @Test
+    public void shallowerBoundsKeepTheDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 100, 50, 6, TranspositionTable.EXACT);
+        table.store(42, 0, 10, 3, TranspositionTable.UPPER);
+        assertEquals(6, TranspositionTable.depth(table.probe(42)));
+
+        table.store(42, 0, 20, 3, TranspositionTable.EXACT);
+        long data = table.probe(42);
+        assertEquals(3, TranspositionTable.depth(data));
+        assertEquals(100, TranspositionTable.move(data), "a result with no move keeps the old one");
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 100, 50, 6, TranspositionTable.EXACT);
+        table.clear();
+        assertEquals(0, table.probe(42));
+    }
+
+    @Test
+    public void racingStoresNeverMixEntries() throws InterruptedException {
+        // every thread stores keys whose data can be worked out from the key, all
+        // into the same few slots, so any hit carrying another key's data is a torn entry
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger mixed = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (seed * 1_000_003 + i) << 20 | i & 3;
+                    table.store(key, (int) (key >>> 20) & 0xFFFFF, (short) (key >>> 24), 1, TranspositionTable.EXACT);
+                    long data = table.probe(key ^ 1L << 20);
+                    if (data != 0 && TranspositionTable.move(data) != ((int) ((key ^ 1L << 20) >>> 20) & 0xFFFFF)) {
+                        mixed.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, mixed.get());
+    }
+}
@@ -0,0 +1,118 @@
+package chess.notation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PgnTests {
+    private static final String GAMES = """
+            [Event "Casual"]
+            [White "Anderssen"]
+            [Black "Kieseritzky"]
+            [Result "1-0"]
+
+            1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ 4. Kf1 b5 {the bishop is offered} 5. Bxb5 Nf6
+            6. Nf3 Qh6 7. d3 Nh5 8. Nh4 Qg5 (8... g6 9. Nf5) 9. Nf5 c6 10. g4 Nf6 11. Rg1
+            cxb5 12. h4 Qg6 13. h5 Qg5 14. Qf3 Ng8 15. Bxf4 Qf6 16. Nc3 Bc5 17. Nd5 Qxb2
+            18. Bd6 Bxg1 $4 19. e5 Qxa1+ 20. Ke2 Na6 21. Nxg7+ Kd8 22. Qf6+ Nxf6
+            23. Be7# 1-0
+
+            ; a position to start from
+            [Event "Study"]
+            [SetUp "1"]
+            [FEN "4k3/8/8/8/8/8/4P3/4K3 b - - 3 40"]
+
+            40... Kd7 41. e4! Ke6 *
+            """;
+
+    @Test
+    public void readsGamesOneAtATime() throws IOException {
+        try (PgnReader reader = new PgnReader(new StringReader(GAMES))) {
+            PgnGame immortal = reader.next();
+            assertEquals("Anderssen", immortal.getTag("White"));
+            assertEquals("1-0", immortal.getResult());
+            assertEquals(45, immortal.getMoves().size());
+            ChessGame end = immortal.replay();
+            assertEquals(ChessGame.GameStatus.CHECKMATE, end.evaluateStatus(end.getTeamTurn()));
+
+            PgnGame study = reader.next();
+            assertEquals("*", study.getResult());
+            assertEquals(3, study.getMoves().size());
+            assertEquals(42, study.replay().getFullmoveNumber());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void writtenGamesReadBack() throws IOException {
+        StringWriter text = new StringWriter();
+        PgnGame original;
+        try (PgnReader reader = new PgnReader(new StringReader(GAMES));
+             PgnWriter writer = new PgnWriter(text)) {
+            original = reader.next();
+            writer.write(original);
+            writer.write(reader.next());
+        }
+        assertTrue(text.toString().contains("23. Be7# 1-0"));
+        assertTrue(text.toString().contains("40... Kd7 41. e4 Ke6 *"));
+        for (String line : text.toString().split("\n")) {
+            assertTrue(line.length() <= 80, line);
+        }
+
+        try (PgnReader reader = new PgnReader(new StringReader(text.toString()))) {
+            PgnGame copy = reader.next();
+            assertEquals(original.getTags(), copy.getTags());
+            assertEquals(original.replay(), copy.replay());
+            assertEquals(3, reader.next().getMoves().size());
+        }
+    }
+
+    @Test
+    public void randomGamesRoundTrip() throws IOException {
+        Random random = new Random(5);
+        MoveList moves = new MoveList();
+        StringWriter text = new StringWriter();
+        ChessGame[] games = new ChessGame[20];
+        try (PgnWriter writer = new PgnWriter(text)) {
+            for (int g = 0; g < games.length; g++) {
+                ChessGame game = new ChessGame();
+                for (int ply = 0; ply < 120; ply++) {
+                    moves.clear();
+                    game.legalMoves(game.getTeamTurn(), moves);
+                    if (moves.isEmpty()) break;
+                    game.makeMove(moves.get(random.nextInt(moves.size())));
+                }
+                Map<String, String> tags = new LinkedHashMap<>();
+                tags.put("Round", String.valueOf(g + 1));
+                writer.write(PgnGame.of(tags, game, PgnGame.UNKNOWN_RESULT));
+                games[g] = game;
+            }
+        }
+
+        try (PgnReader reader = new PgnReader(new StringReader(text.toString()))) {
+            for (ChessGame game : games) {
+                ChessGame replayed = reader.next().replay();
+                assertEquals(game, replayed);
+                assertEquals(game.toFen(), replayed.toFen());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void illegalMoveNamesItsLine() {
+        String pgn = "[Event \"Bad\"]\n\n1. e4 e5\n2. Ke3 *\n";
+        IOException error = assertThrows(IOException.class, () -> new PgnReader(new StringReader(pgn)).next());
+        assertTrue(error.getMessage().startsWith("Line 4"), error.getMessage());
+    }
+}
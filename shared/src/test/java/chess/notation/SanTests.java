@@ -0,0 +1,87 @@
+package chess.notation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class SanTests {
+
+    @Test
+    public void writesEveryKindOfMove() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals("O-O", San.toSan(game, San.parse(game, "O-O")));
+        assertEquals("O-O-O", San.toSan(game, San.parse(game, "0-0-0")));
+        assertEquals("Nxf7", San.toSan(game, San.parse(game, "Ne5xf7")));
+        assertEquals("dxe6", San.toSan(game, San.parse(game, "d5e6")));
+        assertEquals("Qxf6", San.toSan(game, San.parse(game, "Qxf6")));
+        assertEquals("gxh3", San.toSan(game, San.parse(game, "gxh3")));
+
+        ChessGame promotion = ChessGame.fromFen("7k/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals("b8=Q+", San.toSan(promotion, San.parse(promotion, "b8=Q")));
+        assertEquals("b8=N", San.toSan(promotion, San.parse(promotion, "b8N")));
+    }
+
+    @Test
+    public void readsCoordinateMovesForEveryPiece() {
+        ChessGame start = new ChessGame();
+        assertEquals("Nf3", San.toSan(start, San.parse(start, "g1f3")));
+        assertEquals("Nc3", San.toSan(start, San.parse(start, "b1-c3")));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(start, "e1g1"));
+
+        ChessGame castling = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("O-O", San.toSan(castling, San.parse(castling, "e1g1")));
+        assertEquals("O-O-O", San.toSan(castling, San.parse(castling, "e1c1")));
+
+        ChessGame promotion = ChessGame.fromFen("7k/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals("a8=Q+", San.toSan(promotion, San.parse(promotion, "a7a8q")));
+        assertEquals("a8=N", San.toSan(promotion, San.parse(promotion, "a7a8N")));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(promotion, "a7a8"));
+    }
+
+    @Test
+    public void disambiguatesByFileThenRank() {
+        // rooks on a1 and h1 share a rank; rooks on a1 and a5 share a file
+        ChessGame game = ChessGame.fromFen("6k1/8/8/R7/8/8/4K3/R6R w - - 0 1");
+        assertEquals("Rhf1", San.toSan(game, San.parse(game, "Rhf1")));
+        assertEquals("R1a3", San.toSan(game, San.parse(game, "R1a3")));
+        assertEquals("Rab1", San.toSan(game, San.parse(game, "Rab1")));
+        assertEquals("Ra6", San.toSan(game, San.parse(game, "Ra6")));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Ra3"));
+
+        ChessGame queens = ChessGame.fromFen("4k3/8/8/8/8/Q1Q5/8/Q3K3 w - - 0 1");
+        assertEquals("Qa3b2", San.toSan(queens, San.parse(queens, "Qa3b2")));
+    }
+
+    @Test
+    public void marksCheckAndMate() {
+        ChessGame game = new ChessGame();
+        for (String san : new String[]{"f3", "e5", "g4"}) {
+            game.makeMove(San.parse(game, san));
+        }
+        assertEquals("Qh4#", San.toSan(game, San.parse(game, "Qh4")));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Qh5"));
+    }
+
+    @Test
+    public void randomGamesRoundTrip() {
+        Random random = new Random(3);
+        MoveList moves = new MoveList();
+        for (int trial = 0; trial < 30; trial++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                for (int i = 0; i < moves.size(); i++) {
+                    String san = San.toSan(game, moves.get(i));
+                    assertEquals(moves.get(i), San.parse(game, san), san);
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+}